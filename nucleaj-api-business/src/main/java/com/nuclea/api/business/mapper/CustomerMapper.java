@@ -1,6 +1,7 @@
 package com.nuclea.api.business.mapper;
 
 import com.nuclea.api.business.model.response.CustomerResponse;
+import com.nuclea.api.business.service.auth.token.RefreshTokenCustomer;
 import com.nuclea.data.entity.customer.Customer;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -20,4 +21,6 @@ public interface CustomerMapper {
     @Mapping(target = "isActive", source = "isActive")
     @Mapping(target = "oauthProvider", source = "oauthProvider")
     CustomerResponse toResponse(Customer customer);
+
+    CustomerResponse toResponse(RefreshTokenCustomer customer);
 }
@@ -3,19 +3,23 @@ package com.nuclea.api.business.service.auth;
 import com.nuclea.api.business.mapper.CustomerMapper;
 import com.nuclea.api.business.model.response.AuthenticationResponse;
 import com.nuclea.api.business.model.response.CustomerResponse;
-import com.nuclea.common.model.JwtTokenPair;
+import com.nuclea.api.business.service.auth.token.IRefreshTokenStore;
+import com.nuclea.api.business.service.auth.token.IssuedRefreshToken;
+import com.nuclea.api.business.service.auth.token.RefreshTokenCustomer;
+import com.nuclea.api.business.service.auth.token.RefreshTokenRotation;
+import com.nuclea.api.business.service.auth.token.RefreshTokenRotationResult;
+import com.nuclea.common.config.JwtProperties;
 import com.nuclea.common.model.ServiceResult;
 import com.nuclea.common.service.base.BaseService;
 import com.nuclea.common.service.jwt.IJwtService;
 import com.nuclea.common.service.marker.IScopedService;
-import com.nuclea.data.entity.authentication.RefreshToken;
-import com.nuclea.data.entity.customer.Customer;
-import com.nuclea.data.repository.authentication.RefreshTokenRepository;
-import com.nuclea.data.repository.customer.CustomerRepository;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -29,68 +33,71 @@ import java.util.Map;
 @Slf4j
 public class AuthenticationService extends BaseService implements IAuthenticationService, IScopedService {
 
-    private final RefreshTokenRepository refreshTokenRepository;
-    private final CustomerRepository customerRepository;
+    private final IRefreshTokenStore refreshTokenStore;
     private final IJwtService jwtService;
+    private final JwtProperties jwtProperties;
     private final CustomerMapper customerMapper;
 
+    /**
+     * Rotate the refresh token. The store checks the token and returns the customer details in one step
+     * (one transaction with the JPA store, one round-trip with the Redis store); the access token is issued
+     * from those details afterwards.
+     */
     @Override
-    @Transactional
     public ServiceResult<AuthenticationResponse> refreshToken(String refreshToken, String ipAddress, String userAgent) {
         log.info("Refreshing access token");
 
-        // Find refresh token
-        RefreshToken token = refreshTokenRepository.findByTokenAndDeletedDateIsNull(refreshToken)
-                .orElse(null);
-
-        if (token == null) {
-            return ServiceResult.error(getMessage("Auth.InvalidRefreshToken"));
-        }
-
-        // Validate refresh token
-        if (token.isExpired()) {
+        // The customer is taken from the signed token so the store can rotate it in one step
+        Long customerId;
+        try {
+            customerId = jwtService.extractUserId(refreshToken);
+        } catch (ExpiredJwtException e) {
             return ServiceResult.error(getMessage("Auth.RefreshTokenExpired"));
+        } catch (JwtException | IllegalArgumentException e) {
+            return ServiceResult.error(getMessage("Auth.InvalidRefreshToken"));
         }
 
-        if (token.isRevoked()) {
-            return ServiceResult.error(getMessage("Auth.RefreshTokenRevoked"));
+        // Revoke old refresh token and save the new one
+        LocalDateTime now = LocalDateTime.now();
+        IssuedRefreshToken newRefreshToken = new IssuedRefreshToken(
+                jwtService.generateRefreshToken(customerId),
+                customerId,
+                now,
+                now.plusDays(jwtProperties.getRefreshTokenExpirationDays()),
+                ipAddress,
+                userAgent
+        );
+        RefreshTokenRotationResult rotation;
+        try {
+            rotation = refreshTokenStore.rotate(refreshToken, newRefreshToken);
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            return ServiceResult.error(getMessage("General.ServiceBusy"));
         }
 
-        // Get customer
-        Customer customer = token.getCustomer();
-        if (!customer.getIsActive()) {
-            return ServiceResult.error(getMessage("Customer.AccountDeactivated"));
+        if (rotation.status() != RefreshTokenRotation.ROTATED) {
+            return ServiceResult.error(getMessage(switch (rotation.status()) {
+                case EXPIRED -> "Auth.RefreshTokenExpired";
+                case REVOKED -> "Auth.RefreshTokenRevoked";
+                case DEACTIVATED -> "Customer.AccountDeactivated";
+                default -> "Auth.InvalidRefreshToken";
+            }));
         }
 
-        // Generate new tokens
-        JwtTokenPair tokenPair = jwtService.generateTokenPair(
-                customer.getId(),
-                customer.getEmail(),
+        // Generate new access token
+        RefreshTokenCustomer customer = rotation.customer();
+        String accessToken = jwtService.generateAccessToken(
+                customer.id(),
+                customer.email(),
                 buildCustomerClaims(customer)
         );
 
-        // Revoke old refresh token
-        token.revoke();
-        refreshTokenRepository.save(token);
-
-        // Save new refresh token
-        RefreshToken newRefreshToken = RefreshToken.builder()
-                .token(tokenPair.getRefreshToken())
-                .customer(customer)
-                .issuedAt(LocalDateTime.now())
-                .expiresAt(tokenPair.getRefreshTokenExpiry())
-                .ipAddress(ipAddress)
-                .userAgent(userAgent)
-                .build();
-        refreshTokenRepository.save(newRefreshToken);
-
         // Build response
         CustomerResponse customerResponse = customerMapper.toResponse(customer);
         AuthenticationResponse authResponse = AuthenticationResponse.builder()
-                .accessToken(tokenPair.getAccessToken())
-                .refreshToken(tokenPair.getRefreshToken())
-                .accessTokenExpiry(tokenPair.getAccessTokenExpiry())
-                .refreshTokenExpiry(tokenPair.getRefreshTokenExpiry())
+                .accessToken(accessToken)
+                .refreshToken(newRefreshToken.token())
+                .accessTokenExpiry(now.plusMinutes(jwtProperties.getAccessTokenExpirationMinutes()))
+                .refreshTokenExpiry(newRefreshToken.expiresAt())
                 .customer(customerResponse)
                 .build();
 
@@ -98,29 +105,21 @@ public class AuthenticationService extends BaseService implements IAuthenticatio
     }
 
     @Override
-    @Transactional
     public ServiceResult<Boolean> revokeToken(String refreshToken) {
         log.info("Revoking refresh token");
 
-        RefreshToken token = refreshTokenRepository.findByTokenAndDeletedDateIsNull(refreshToken)
-                .orElse(null);
-
-        if (token == null) {
+        if (!refreshTokenStore.revoke(refreshToken)) {
             return ServiceResult.error(getMessage("Auth.InvalidRefreshToken"));
         }
 
-        token.revoke();
-        refreshTokenRepository.save(token);
-
         return ServiceResult.success(true, getMessage("Auth.LogoutSuccess"));
     }
 
     @Override
-    @Transactional
     public ServiceResult<Boolean> revokeAllCustomerTokens(Long customerId) {
         log.info("Revoking all tokens for customer: {}", customerId);
 
-        refreshTokenRepository.revokeAllByCustomerId(customerId, LocalDateTime.now());
+        refreshTokenStore.revokeAllByCustomerId(customerId);
 
         return ServiceResult.success(true);
     }
@@ -128,11 +127,11 @@ public class AuthenticationService extends BaseService implements IAuthenticatio
     /**
      * Build JWT claims for customer.
      */
-    private Map<String, Object> buildCustomerClaims(Customer customer) {
+    private Map<String, Object> buildCustomerClaims(RefreshTokenCustomer customer) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("email_verified", customer.getIsEmailVerified());
-        if (customer.getOauthProvider() != null) {
-            claims.put("oauth_provider", customer.getOauthProvider());
+        claims.put("email_verified", customer.isEmailVerified());
+        if (customer.oauthProvider() != null) {
+            claims.put("oauth_provider", customer.oauthProvider());
         }
         return claims;
     }
@@ -0,0 +1,35 @@
+package com.nuclea.api.business.service.auth.token;
+
+/**
+ * Storage of issued refresh tokens, selected with {@code app.auth.refresh-token-store} (jpa or redis).
+ */
+public interface IRefreshTokenStore {
+
+    /**
+     * Store a newly issued refresh token with the customer details it is issued for.
+     */
+    void save(IssuedRefreshToken token, RefreshTokenCustomer customer);
+
+    /**
+     * Revoke the current token and store its replacement in one step, returning the customer details
+     * the replacement was stored with. The current token must belong to the replacement's customer,
+     * and the customer must still be active.
+     */
+    RefreshTokenRotationResult rotate(String currentToken, IssuedRefreshToken replacement);
+
+    /**
+     * Revoke a refresh token; false when it does not exist.
+     */
+    boolean revoke(String token);
+
+    /**
+     * Revoke all refresh tokens of a customer.
+     */
+    void revokeAllByCustomerId(Long customerId);
+
+    /**
+     * Replace the customer details kept with the customer's refresh tokens after they changed.
+     * A deactivated customer is signed out with {@link #revokeAllByCustomerId} instead.
+     */
+    void updateCustomer(RefreshTokenCustomer customer);
+}
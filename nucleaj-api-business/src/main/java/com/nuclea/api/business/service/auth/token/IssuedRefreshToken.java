@@ -0,0 +1,16 @@
+package com.nuclea.api.business.service.auth.token;
+
+import java.time.LocalDateTime;
+
+/**
+ * A refresh token handed out to a customer, with the client it was issued to.
+ */
+public record IssuedRefreshToken(
+        String token,
+        Long customerId,
+        LocalDateTime issuedAt,
+        LocalDateTime expiresAt,
+        String ipAddress,
+        String userAgent
+) {
+}
@@ -0,0 +1,102 @@
+package com.nuclea.api.business.service.auth.token;
+
+import com.nuclea.common.service.marker.ISingletonService;
+import com.nuclea.data.entity.authentication.RefreshToken;
+import com.nuclea.data.repository.authentication.RefreshTokenRepository;
+import com.nuclea.data.repository.customer.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Refresh token store on the {@code refresh_tokens} table (default).
+ */
+@Service
+@ConditionalOnProperty(name = "app.auth.refresh-token-store", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaRefreshTokenStore implements IRefreshTokenStore, ISingletonService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final CustomerRepository customerRepository;
+
+    /**
+     * Customer details are kept in the customers table, so only the token row is written.
+     */
+    @Override
+    @Transactional
+    public void save(IssuedRefreshToken token, RefreshTokenCustomer customer) {
+        insert(token);
+    }
+
+    /**
+     * One transaction and one query: the token is loaded together with its customer, whose current
+     * details (including whether it is still active) are returned for the new tokens.
+     */
+    @Override
+    @Transactional
+    public RefreshTokenRotationResult rotate(String currentToken, IssuedRefreshToken replacement) {
+        RefreshToken token = refreshTokenRepository.findWithCustomerByToken(currentToken)
+                .orElse(null);
+
+        if (token == null || token.getCustomer().isDeleted()
+                || !token.getCustomer().getId().equals(replacement.customerId())) {
+            return RefreshTokenRotationResult.rejected(RefreshTokenRotation.NOT_FOUND);
+        }
+        if (token.isExpired()) {
+            return RefreshTokenRotationResult.rejected(RefreshTokenRotation.EXPIRED);
+        }
+        if (token.isRevoked()) {
+            return RefreshTokenRotationResult.rejected(RefreshTokenRotation.REVOKED);
+        }
+        if (!Boolean.TRUE.equals(token.getCustomer().getIsActive())) {
+            return RefreshTokenRotationResult.rejected(RefreshTokenRotation.DEACTIVATED);
+        }
+
+        token.revoke();
+        refreshTokenRepository.save(token);
+        insert(replacement);
+        return RefreshTokenRotationResult.rotated(RefreshTokenCustomer.from(token.getCustomer()));
+    }
+
+    @Override
+    @Transactional
+    public boolean revoke(String token) {
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenAndDeletedDateIsNull(token)
+                .orElse(null);
+
+        if (refreshToken == null) {
+            return false;
+        }
+
+        refreshToken.revoke();
+        refreshTokenRepository.save(refreshToken);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public void revokeAllByCustomerId(Long customerId) {
+        refreshTokenRepository.revokeAllByCustomerId(customerId, LocalDateTime.now());
+    }
+
+    @Override
+    public void updateCustomer(RefreshTokenCustomer customer) {
+        // Nothing to do: customer details are read from the customers table on every refresh
+    }
+
+    private void insert(IssuedRefreshToken token) {
+        RefreshToken refreshToken = RefreshToken.builder()
+                .token(token.token())
+                .customer(customerRepository.getReferenceById(token.customerId()))
+                .issuedAt(token.issuedAt())
+                .expiresAt(token.expiresAt())
+                .ipAddress(token.ipAddress())
+                .userAgent(token.userAgent())
+                .build();
+
+        refreshTokenRepository.save(refreshToken);
+    }
+}
@@ -0,0 +1,279 @@
+package com.nuclea.api.business.service.auth.token;
+
+import com.nuclea.common.service.marker.ISingletonService;
+import com.nuclea.common.service.resilience.ResilienceGuard;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Refresh token store in Redis: a hash per token expiring with the token, plus a per-customer set of
+ * token hashes for {@link #revokeAllByCustomerId}.
+ * <p>
+ * Each hash also holds the customer details new tokens are issued with ({@link RefreshTokenCustomer}),
+ * copied forward and returned by the rotate script, so a token refresh is a single Redis round-trip and no
+ * SQL at all. Deactivating a customer revokes their tokens; other changes are pushed with {@link #updateCustomer}.
+ * <p>
+ * Issue and revoke events are written to {@code refresh_tokens} asynchronously by
+ * {@link RefreshTokenAuditWriter} for IP/user-agent history. Scripts touch several keys, so Redis Cluster
+ * is not supported.
+ * <p>
+ * Tokens issued while the JPA store was active are not migrated; switching stores signs those sessions out.
+ */
+@Service
+@ConditionalOnProperty(name = "app.auth.refresh-token-store", havingValue = "redis")
+@Slf4j
+public class RedisRefreshTokenStore implements IRefreshTokenStore, ISingletonService {
+
+    private static final String TOKEN_KEY = "refresh_token:";
+    private static final String CUSTOMER_KEY = "refresh_tokens:customer:";
+
+    // KEYS: token, customer set; ARGV: customerId, issuedAt, expiresAt, ip, user agent, token hash,
+    // then the customer fields
+    private static final RedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('HSET', KEYS[1], 'customerId', ARGV[1], 'issuedAt', ARGV[2], 'expiresAt', ARGV[3], " +
+            "'ipAddress', ARGV[4], 'userAgent', ARGV[5], 'firstName', ARGV[7], 'lastName', ARGV[8], " +
+            "'email', ARGV[9], 'emailVerified', ARGV[10], 'active', ARGV[11], 'oauthProvider', ARGV[12]) " +
+            "redis.call('PEXPIREAT', KEYS[1], ARGV[3]) " +
+            "redis.call('SADD', KEYS[2], ARGV[6]) " +
+            "redis.call('PEXPIREAT', KEYS[2], ARGV[3]) " +
+            "return 1",
+            Long.class
+    );
+
+    // KEYS: current token, new token, customer set
+    // ARGV: customerId, now, issuedAt, expiresAt, ip, user agent, new token hash, current token hash
+    // The customer fields are copied from the current token, so an update running meanwhile is not lost,
+    // and returned after the outcome. Tokens saved before customer details were stored have no email and
+    // are treated as unknown, so those customers sign in again.
+    private static final RedisScript<List> ROTATE_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('HMGET', KEYS[1], 'customerId', 'expiresAt', 'revokedAt', " +
+            "'firstName', 'lastName', 'email', 'emailVerified', 'active', 'oauthProvider') " +
+            "if current[1] ~= ARGV[1] or not current[6] or current[6] == '' then return {'NOT_FOUND'} end " +
+            "if tonumber(current[2]) <= tonumber(ARGV[2]) then return {'EXPIRED'} end " +
+            "if current[3] then return {'REVOKED'} end " +
+            "if current[8] ~= '1' then return {'DEACTIVATED'} end " +
+            "redis.call('HSET', KEYS[1], 'revokedAt', ARGV[2]) " +
+            "redis.call('SREM', KEYS[3], ARGV[8]) " +
+            "redis.call('HSET', KEYS[2], 'customerId', ARGV[1], 'issuedAt', ARGV[3], 'expiresAt', ARGV[4], " +
+            "'ipAddress', ARGV[5], 'userAgent', ARGV[6], 'firstName', current[4] or '', " +
+            "'lastName', current[5] or '', 'email', current[6] or '', 'emailVerified', current[7] or '0', " +
+            "'active', current[8] or '0', 'oauthProvider', current[9] or '') " +
+            "redis.call('PEXPIREAT', KEYS[2], ARGV[4]) " +
+            "redis.call('SADD', KEYS[3], ARGV[7]) " +
+            "redis.call('PEXPIREAT', KEYS[3], ARGV[4]) " +
+            "return {'ROTATED', current[4] or '', current[5] or '', current[6], current[7] or '0', " +
+            "current[8], current[9] or ''}",
+            List.class
+    );
+
+    // KEYS: token; ARGV: now. Returns 0 when the token does not exist.
+    private static final RedisScript<Long> REVOKE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "redis.call('HSETNX', KEYS[1], 'revokedAt', ARGV[1]) " +
+            "return 1",
+            Long.class
+    );
+
+    // KEYS: customer set; ARGV: now, token key prefix. Members whose hash already expired are skipped.
+    private static final RedisScript<Long> REVOKE_ALL_SCRIPT = new DefaultRedisScript<>(
+            "local revoked = 0 " +
+            "for _, member in ipairs(redis.call('SMEMBERS', KEYS[1])) do " +
+            "  local key = ARGV[2] .. member " +
+            "  if redis.call('EXISTS', key) == 1 and redis.call('HSETNX', key, 'revokedAt', ARGV[1]) == 1 then " +
+            "    revoked = revoked + 1 " +
+            "  end " +
+            "end " +
+            "redis.call('DEL', KEYS[1]) " +
+            "return revoked",
+            Long.class
+    );
+
+    // KEYS: customer set; ARGV: token key prefix, then the customer fields
+    private static final RedisScript<Long> UPDATE_CUSTOMER_SCRIPT = new DefaultRedisScript<>(
+            "local updated = 0 " +
+            "for _, member in ipairs(redis.call('SMEMBERS', KEYS[1])) do " +
+            "  local key = ARGV[1] .. member " +
+            "  if redis.call('EXISTS', key) == 1 then " +
+            "    redis.call('HSET', key, 'firstName', ARGV[2], 'lastName', ARGV[3], 'email', ARGV[4], " +
+            "'emailVerified', ARGV[5], 'active', ARGV[6], 'oauthProvider', ARGV[7]) " +
+            "    updated = updated + 1 " +
+            "  end " +
+            "end " +
+            "return updated",
+            Long.class
+    );
+
+    private final StringRedisTemplate redisTemplate;
+    private final ResilienceGuard resilienceGuard;
+    private final RefreshTokenAuditWriter auditWriter;
+    private final String tokenKeyPrefix;
+    private final String customerKeyPrefix;
+
+    public RedisRefreshTokenStore(
+            StringRedisTemplate redisTemplate,
+            ResilienceGuard resilienceGuard,
+            RefreshTokenAuditWriter auditWriter,
+            @Value("${app.cache.key-prefix:nuclea:}") String keyPrefix
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.resilienceGuard = resilienceGuard;
+        this.auditWriter = auditWriter;
+        this.tokenKeyPrefix = keyPrefix + TOKEN_KEY;
+        this.customerKeyPrefix = keyPrefix + CUSTOMER_KEY;
+    }
+
+    @Override
+    public void save(IssuedRefreshToken token, RefreshTokenCustomer customer) {
+        String tokenHash = hash(token.token());
+        List<String> args = new ArrayList<>(List.of(
+                token.customerId().toString(),
+                toMillis(token.issuedAt()),
+                toMillis(token.expiresAt()),
+                nullToEmpty(token.ipAddress()),
+                nullToEmpty(token.userAgent()),
+                tokenHash
+        ));
+        args.addAll(customerValues(customer));
+
+        resilienceGuard.execute(ResilienceGuard.REDIS, () -> redisTemplate.execute(
+                SAVE_SCRIPT,
+                List.of(tokenKeyPrefix + tokenHash, customerKeyPrefix + token.customerId()),
+                args.toArray()
+        ));
+        auditWriter.issued(token);
+    }
+
+    @Override
+    public RefreshTokenRotationResult rotate(String currentToken, IssuedRefreshToken replacement) {
+        String currentHash = hash(currentToken);
+        String replacementHash = hash(replacement.token());
+        LocalDateTime now = LocalDateTime.now();
+
+        List<?> result = resilienceGuard.execute(ResilienceGuard.REDIS, () -> redisTemplate.execute(
+                ROTATE_SCRIPT,
+                List.of(tokenKeyPrefix + currentHash, tokenKeyPrefix + replacementHash,
+                        customerKeyPrefix + replacement.customerId()),
+                replacement.customerId().toString(),
+                toMillis(now),
+                toMillis(replacement.issuedAt()),
+                toMillis(replacement.expiresAt()),
+                nullToEmpty(replacement.ipAddress()),
+                nullToEmpty(replacement.userAgent()),
+                replacementHash,
+                currentHash
+        ));
+
+        RefreshTokenRotation rotation = RefreshTokenRotation.valueOf((String) result.get(0));
+        if (rotation != RefreshTokenRotation.ROTATED) {
+            return RefreshTokenRotationResult.rejected(rotation);
+        }
+        auditWriter.revoked(currentToken, now);
+        auditWriter.issued(replacement);
+        return RefreshTokenRotationResult.rotated(new RefreshTokenCustomer(
+                replacement.customerId(),
+                emptyToNull(result.get(1)),
+                emptyToNull(result.get(2)),
+                emptyToNull(result.get(3)),
+                "1".equals(result.get(4)),
+                "1".equals(result.get(5)),
+                emptyToNull(result.get(6))
+        ));
+    }
+
+    @Override
+    public boolean revoke(String token) {
+        LocalDateTime now = LocalDateTime.now();
+        Long result = resilienceGuard.execute(ResilienceGuard.REDIS, () -> redisTemplate.execute(
+                REVOKE_SCRIPT,
+                List.of(tokenKeyPrefix + hash(token)),
+                toMillis(now)
+        ));
+
+        if (result == null || result == 0) {
+            return false;
+        }
+        auditWriter.revoked(token, now);
+        return true;
+    }
+
+    @Override
+    public void revokeAllByCustomerId(Long customerId) {
+        LocalDateTime now = LocalDateTime.now();
+        Long revoked = resilienceGuard.execute(ResilienceGuard.REDIS, () -> redisTemplate.execute(
+                REVOKE_ALL_SCRIPT,
+                List.of(customerKeyPrefix + customerId),
+                toMillis(now),
+                tokenKeyPrefix
+        ));
+
+        log.debug("Revoked {} refresh tokens of customer {}", revoked, customerId);
+        auditWriter.revokedAll(customerId, now);
+    }
+
+    @Override
+    public void updateCustomer(RefreshTokenCustomer customer) {
+        List<String> args = new ArrayList<>();
+        args.add(tokenKeyPrefix);
+        args.addAll(customerValues(customer));
+
+        Long updated = resilienceGuard.execute(ResilienceGuard.REDIS, () -> redisTemplate.execute(
+                UPDATE_CUSTOMER_SCRIPT,
+                List.of(customerKeyPrefix + customer.id()),
+                args.toArray()
+        ));
+        log.debug("Updated customer details on {} refresh tokens of customer {}", updated, customer.id());
+    }
+
+    /**
+     * Customer field values in script argument order (firstName, lastName, email, emailVerified, active,
+     * oauthProvider); booleans are stored as 1/0.
+     */
+    private static List<String> customerValues(RefreshTokenCustomer customer) {
+        return List.of(
+                nullToEmpty(customer.firstName()),
+                nullToEmpty(customer.lastName()),
+                nullToEmpty(customer.email()),
+                Boolean.TRUE.equals(customer.isEmailVerified()) ? "1" : "0",
+                Boolean.TRUE.equals(customer.isActive()) ? "1" : "0",
+                nullToEmpty(customer.oauthProvider())
+        );
+    }
+
+    private static String toMillis(LocalDateTime dateTime) {
+        return Long.toString(dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String emptyToNull(Object value) {
+        return value instanceof String string && !string.isEmpty() ? string : null;
+    }
+
+    /**
+     * Tokens are keyed by SHA-256 so the JWT itself is never stored in Redis.
+     */
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
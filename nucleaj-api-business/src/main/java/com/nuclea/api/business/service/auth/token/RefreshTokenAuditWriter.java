@@ -0,0 +1,158 @@
+package com.nuclea.api.business.service.auth.token;
+
+import com.nuclea.common.service.marker.ISingletonService;
+import com.nuclea.data.entity.authentication.RefreshToken;
+import com.nuclea.data.repository.authentication.RefreshTokenRepository;
+import com.nuclea.data.repository.customer.CustomerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind audit trail of the Redis refresh token store into {@code refresh_tokens}.
+ * <p>
+ * Events are queued in memory and written in batches, one transaction per batch, so SQL Server stays off
+ * the token refresh path. The queue is bounded: when it is full, events are dropped and counted rather than
+ * slowing down authentication. Rows are history only; the Redis store never reads them.
+ */
+@Component
+@ConditionalOnProperty(name = "app.auth.refresh-token-store", havingValue = "redis")
+@Slf4j
+public class RefreshTokenAuditWriter implements ISingletonService {
+
+    private enum EventType { ISSUED, REVOKED, REVOKED_ALL }
+
+    private record AuditEvent(EventType type, IssuedRefreshToken issued, String token, Long customerId, LocalDateTime at) {
+    }
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<AuditEvent> queue;
+    private final int batchSize;
+    private final Counter droppedCounter;
+    // Not synchronized: the flush does JDBC I/O, which would pin a virtual thread in a monitor
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public RefreshTokenAuditWriter(
+            RefreshTokenRepository refreshTokenRepository,
+            CustomerRepository customerRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.auth.refresh-token-audit.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.auth.refresh-token-audit.batch-size:500}") int batchSize,
+            ObjectProvider<MeterRegistry> meterRegistryProvider
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.customerRepository = customerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        this.droppedCounter = meterRegistry == null ? null : Counter.builder("nuclea.auth.refresh_token_audit.dropped")
+                .description("Refresh token audit events dropped because the write-behind queue was full")
+                .register(meterRegistry);
+    }
+
+    public void issued(IssuedRefreshToken token) {
+        enqueue(new AuditEvent(EventType.ISSUED, token, token.token(), token.customerId(), token.issuedAt()));
+    }
+
+    public void revoked(String token, LocalDateTime revokedAt) {
+        enqueue(new AuditEvent(EventType.REVOKED, null, token, null, revokedAt));
+    }
+
+    public void revokedAll(Long customerId, LocalDateTime revokedAt) {
+        enqueue(new AuditEvent(EventType.REVOKED_ALL, null, null, customerId, revokedAt));
+    }
+
+    /**
+     * Write queued events in batches.
+     */
+    @Scheduled(fixedDelayString = "${app.auth.refresh-token-audit.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<AuditEvent> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> write(batch));
+                } catch (Exception e) {
+                    log.error("Error writing {} refresh token audit events: {}", batch.size(), e.getMessage());
+                }
+                batch.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void enqueue(AuditEvent event) {
+        if (queue.offer(event)) {
+            return;
+        }
+        if (droppedCounter != null) {
+            droppedCounter.increment();
+        }
+        log.warn("Refresh token audit queue full, dropping {} event", event.type());
+    }
+
+    /**
+     * Apply events in order; inserts are batched until the next revocation so it sees them.
+     */
+    private void write(List<AuditEvent> batch) {
+        List<RefreshToken> inserts = new ArrayList<>();
+        for (AuditEvent event : batch) {
+            switch (event.type()) {
+                case ISSUED -> inserts.add(toEntity(event.issued()));
+                case REVOKED -> {
+                    saveInserts(inserts);
+                    refreshTokenRepository.revokeByToken(event.token(), event.at());
+                }
+                case REVOKED_ALL -> {
+                    saveInserts(inserts);
+                    refreshTokenRepository.revokeAllByCustomerId(event.customerId(), event.at());
+                }
+            }
+        }
+        saveInserts(inserts);
+    }
+
+    private void saveInserts(List<RefreshToken> inserts) {
+        if (!inserts.isEmpty()) {
+            refreshTokenRepository.saveAll(inserts);
+            inserts.clear();
+        }
+    }
+
+    private RefreshToken toEntity(IssuedRefreshToken token) {
+        return RefreshToken.builder()
+                .token(token.token())
+                .customer(customerRepository.getReferenceById(token.customerId()))
+                .issuedAt(token.issuedAt())
+                .expiresAt(token.expiresAt())
+                .ipAddress(token.ipAddress())
+                .userAgent(token.userAgent())
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.nuclea.api.business.service.auth.token;
+
+import com.nuclea.data.entity.customer.Customer;
+
+/**
+ * Customer details kept with a refresh token, so a token refresh can issue new tokens without loading
+ * the customer.
+ */
+public record RefreshTokenCustomer(
+        Long id,
+        String firstName,
+        String lastName,
+        String email,
+        Boolean isEmailVerified,
+        Boolean isActive,
+        String oauthProvider
+) {
+
+    public static RefreshTokenCustomer from(Customer customer) {
+        return new RefreshTokenCustomer(
+                customer.getId(),
+                customer.getFirstName(),
+                customer.getLastName(),
+                customer.getEmail(),
+                customer.getIsEmailVerified(),
+                customer.getIsActive(),
+                customer.getOauthProvider()
+        );
+    }
+}
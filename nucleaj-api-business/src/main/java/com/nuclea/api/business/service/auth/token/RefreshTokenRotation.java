@@ -0,0 +1,12 @@
+package com.nuclea.api.business.service.auth.token;
+
+/**
+ * Outcome of {@link IRefreshTokenStore#rotate}.
+ */
+public enum RefreshTokenRotation {
+    ROTATED,
+    NOT_FOUND,
+    EXPIRED,
+    REVOKED,
+    DEACTIVATED
+}
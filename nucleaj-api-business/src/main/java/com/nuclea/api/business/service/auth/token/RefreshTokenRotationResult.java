@@ -0,0 +1,16 @@
+package com.nuclea.api.business.service.auth.token;
+
+/**
+ * Result of {@link IRefreshTokenStore#rotate}: the outcome and, when rotated, the customer details
+ * the new tokens are issued with.
+ */
+public record RefreshTokenRotationResult(RefreshTokenRotation status, RefreshTokenCustomer customer) {
+
+    public static RefreshTokenRotationResult rotated(RefreshTokenCustomer customer) {
+        return new RefreshTokenRotationResult(RefreshTokenRotation.ROTATED, customer);
+    }
+
+    public static RefreshTokenRotationResult rejected(RefreshTokenRotation status) {
+        return new RefreshTokenRotationResult(status, null);
+    }
+}
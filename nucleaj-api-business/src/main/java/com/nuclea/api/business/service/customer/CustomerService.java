@@ -5,22 +5,27 @@ import com.nuclea.api.business.model.request.CustomerLoginRequest;
 import com.nuclea.api.business.model.request.CustomerRegistrationRequest;
 import com.nuclea.api.business.model.response.AuthenticationResponse;
 import com.nuclea.api.business.model.response.CustomerResponse;
+import com.nuclea.api.business.service.auth.token.IRefreshTokenStore;
+import com.nuclea.api.business.service.auth.token.IssuedRefreshToken;
+import com.nuclea.api.business.service.auth.token.RefreshTokenCustomer;
 import com.nuclea.common.model.JwtTokenPair;
 import com.nuclea.common.model.ServiceResult;
 import com.nuclea.common.service.base.BaseService;
 import com.nuclea.common.service.email.IMailService;
 import com.nuclea.common.service.jwt.IJwtService;
 import com.nuclea.common.service.marker.IScopedService;
+import com.nuclea.common.service.password.IPasswordHashingService;
+import com.nuclea.common.service.password.PasswordHashingBusyException;
+import com.nuclea.common.service.password.PasswordVerification;
 import com.nuclea.common.util.KeyGenerator;
-import com.nuclea.common.util.PasswordUtil;
-import com.nuclea.data.entity.authentication.RefreshToken;
 import com.nuclea.data.entity.customer.Customer;
-import com.nuclea.data.repository.authentication.RefreshTokenRepository;
 import com.nuclea.data.repository.customer.CustomerRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -35,10 +40,11 @@ import java.util.Map;
 public class CustomerService extends BaseService implements ICustomerService, IScopedService {
 
     private final CustomerRepository customerRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final IRefreshTokenStore refreshTokenStore;
     private final IJwtService jwtService;
     private final IMailService mailService;
     private final CustomerMapper customerMapper;
+    private final IPasswordHashingService passwordHashingService;
 
     @Override
     @Transactional
@@ -50,12 +56,19 @@ public class CustomerService extends BaseService implements ICustomerService, IS
             return ServiceResult.error(getMessage("Customer.EmailAlreadyExists"));
         }
 
+        String passwordHash;
+        try {
+            passwordHash = passwordHashingService.hash(request.getPassword());
+        } catch (PasswordHashingBusyException e) {
+            return ServiceResult.error(getMessage("General.ServiceBusy"));
+        }
+
         // Create customer
         Customer customer = Customer.builder()
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .email(request.getEmail())
-                .passwordHash(PasswordUtil.hashPassword(request.getPassword()))
+                .passwordHash(passwordHash)
                 .isEmailVerified(false)
                 .isActive(true)
                 .emailVerificationCode(KeyGenerator.generateVerificationCode())
@@ -75,7 +88,7 @@ public class CustomerService extends BaseService implements ICustomerService, IS
         );
 
         // Save refresh token
-        saveRefreshToken(customer, tokenPair.getRefreshToken(), null, null);
+        saveRefreshToken(customer, tokenPair, null, null);
 
         // Build response
         CustomerResponse customerResponse = customerMapper.toResponse(customer);
@@ -104,7 +117,14 @@ public class CustomerService extends BaseService implements ICustomerService, IS
         }
 
         // Verify password
-        if (!PasswordUtil.verifyPassword(request.getPassword(), customer.getPasswordHash())) {
+        PasswordVerification verification;
+        try {
+            verification = passwordHashingService.verify(request.getPassword(), customer.getPasswordHash());
+        } catch (PasswordHashingBusyException e) {
+            return ServiceResult.error(getMessage("General.ServiceBusy"));
+        }
+
+        if (!verification.matches()) {
             return ServiceResult.error(getMessage("Customer.InvalidCredentials"));
         }
 
@@ -113,8 +133,11 @@ public class CustomerService extends BaseService implements ICustomerService, IS
             return ServiceResult.error(getMessage("Customer.AccountDeactivated"));
         }
 
-        // Update last login date
+        // Update last login date and re-hash with the current BCrypt strength if needed
         customer.setLastLoginDate(LocalDateTime.now());
+        if (verification.needsUpgrade()) {
+            customer.setPasswordHash(verification.upgradedHash());
+        }
         customerRepository.save(customer);
 
         // Generate tokens
@@ -125,7 +148,7 @@ public class CustomerService extends BaseService implements ICustomerService, IS
         );
 
         // Save refresh token
-        saveRefreshToken(customer, tokenPair.getRefreshToken(), ipAddress, userAgent);
+        saveRefreshToken(customer, tokenPair, ipAddress, userAgent);
 
         // Build response
         CustomerResponse customerResponse = customerMapper.toResponse(customer);
@@ -168,6 +191,7 @@ public class CustomerService extends BaseService implements ICustomerService, IS
         customer.setEmailVerificationCode(null);
         customer.setEmailVerificationCodeExpiry(null);
         customerRepository.save(customer);
+        updateRefreshTokenCustomer(customer);
 
         return ServiceResult.success(true, getMessage("Customer.EmailVerificationSuccess"));
     }
@@ -197,6 +221,29 @@ public class CustomerService extends BaseService implements ICustomerService, IS
         return ServiceResult.success(true, getMessage("Customer.EmailVerificationCodeSent"));
     }
 
+    /**
+     * Signs the customer out everywhere in the same call: if the token store cannot revoke the tokens,
+     * the deactivation is rolled back and can be retried.
+     */
+    @Override
+    @Transactional
+    public ServiceResult<Boolean> deactivateCustomer(Long customerId) {
+        log.info("Deactivating customer: {}", customerId);
+
+        Customer customer = customerRepository.findByIdActive(customerId)
+                .orElse(null);
+
+        if (customer == null) {
+            return ServiceResult.error(getMessage("Customer.CustomerNotFound"));
+        }
+
+        customer.setIsActive(false);
+        customerRepository.save(customer);
+        refreshTokenStore.revokeAllByCustomerId(customerId);
+
+        return ServiceResult.success(true);
+    }
+
     /**
      * Build JWT claims for customer.
      */
@@ -210,38 +257,51 @@ public class CustomerService extends BaseService implements ICustomerService, IS
     }
 
     /**
-     * Save refresh token to database.
+     * Save refresh token in the configured token store.
      */
-    private void saveRefreshToken(Customer customer, String token, String ipAddress, String userAgent) {
-        RefreshToken refreshToken = RefreshToken.builder()
-                .token(token)
-                .customer(customer)
-                .issuedAt(LocalDateTime.now())
-                .expiresAt(LocalDateTime.now().plusDays(7))
-                .ipAddress(ipAddress)
-                .userAgent(userAgent)
-                .build();
+    private void saveRefreshToken(Customer customer, JwtTokenPair tokenPair, String ipAddress, String userAgent) {
+        refreshTokenStore.save(new IssuedRefreshToken(
+                tokenPair.getRefreshToken(),
+                customer.getId(),
+                LocalDateTime.now(),
+                tokenPair.getRefreshTokenExpiry(),
+                ipAddress,
+                userAgent
+        ), RefreshTokenCustomer.from(customer));
+    }
 
-        refreshTokenRepository.save(refreshToken);
+    /**
+     * Copy changed customer details to the customer's refresh tokens once the change is committed.
+     */
+    private void updateRefreshTokenCustomer(Customer customer) {
+        RefreshTokenCustomer tokenCustomer = RefreshTokenCustomer.from(customer);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    refreshTokenStore.updateCustomer(tokenCustomer);
+                } catch (Exception e) {
+                    // Tokens keep the previous details until the customer signs in again
+                    log.error("Error updating refresh tokens of customer {}: {}", tokenCustomer.id(), e.getMessage());
+                }
+            }
+        });
     }
 
     /**
-     * Send email verification code.
+     * Queue email verification code; it is delivered after the surrounding transaction commits.
+     * Not caught: the outbox row is written with the customer, and a failure rolls both back.
      */
     private void sendVerificationEmail(Customer customer) {
-        try {
-            Map<String, Object> variables = new HashMap<>();
-            variables.put("firstName", customer.getFirstName());
-            variables.put("verificationCode", customer.getEmailVerificationCode());
-
-            mailService.sendTemplateEmail(
-                    customer.getEmail(),
-                    "Email Verification",
-                    "email-verification",
-                    variables
-            );
-        } catch (Exception e) {
-            log.error("Error sending verification email: {}", e.getMessage(), e);
-        }
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("firstName", customer.getFirstName());
+        variables.put("verificationCode", customer.getEmailVerificationCode());
+
+        mailService.queueTemplateEmail(
+                customer.getEmail(),
+                "Email Verification",
+                "email-verification",
+                variables
+        );
     }
 }
@@ -29,4 +29,9 @@ public interface ICustomerService {
      * Resend email verification code.
      */
     ServiceResult<Boolean> resendVerificationCode(String email);
+
+    /**
+     * Deactivate customer and revoke all their refresh tokens.
+     */
+    ServiceResult<Boolean> deactivateCustomer(Long customerId);
 }
@@ -6,11 +6,16 @@ import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Nuclea API Spring Boot Application.
+ * <p>
+ * With {@code spring.threads.virtual.enabled=true} request handling, {@code @Async} and {@code @Scheduled}
+ * tasks run on virtual threads.
  */
 @SpringBootApplication
+@EnableScheduling
 @ComponentScan(basePackages = {
         "com.nuclea.api",
         "com.nuclea.api.business",
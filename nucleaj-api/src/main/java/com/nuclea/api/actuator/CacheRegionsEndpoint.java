@@ -0,0 +1,75 @@
+package com.nuclea.api.actuator;
+
+import com.nuclea.common.constants.CacheKeys;
+import com.nuclea.common.service.cache.CacheMetrics;
+import com.nuclea.common.service.cache.ICacheManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint listing cache regions ({@link CacheKeys} prefixes) with size and hit ratio.
+ * {@code DELETE /actuator/cacheregions/{region}} evicts every key of a region.
+ */
+@Component
+@Endpoint(id = "cacheregions")
+@RequiredArgsConstructor
+@Slf4j
+public class CacheRegionsEndpoint {
+
+    private final ICacheManager cacheManager;
+    private final CacheMetrics cacheMetrics;
+
+    @ReadOperation
+    public List<CacheRegion> regions() {
+        return CacheKeys.regions().stream()
+                .map(this::describe)
+                .toList();
+    }
+
+    @ReadOperation
+    public CacheRegion region(@Selector String region) {
+        return CacheKeys.regions().contains(region) ? describe(region) : null;
+    }
+
+    @DeleteOperation
+    public CacheRegion evict(@Selector String region) {
+        if (!CacheKeys.regions().contains(region)) {
+            return null;
+        }
+        cacheManager.removePattern(CacheKeys.regionPattern(region));
+        log.info("Cache region evicted via actuator: {}", region);
+        return describe(region);
+    }
+
+    private CacheRegion describe(String region) {
+        long size = cacheManager.count(CacheKeys.regionPattern(region));
+        CacheMetrics.RegionStats stats = cacheMetrics.region(region);
+        if (stats == null) {
+            return new CacheRegion(region, size, 0, 0, 0.0, 0, 0.0, 0);
+        }
+        return new CacheRegion(region, size, stats.hits(), stats.misses(), stats.hitRatio(),
+                stats.loads(), stats.averageLoadMillis(), stats.evictions());
+    }
+
+    /**
+     * Snapshot of a cache region.
+     */
+    public record CacheRegion(
+            String region,
+            long size,
+            long hits,
+            long misses,
+            double hitRatio,
+            long loads,
+            double averageLoadMillis,
+            long evictions
+    ) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.nuclea.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adaptive concurrency limit configuration.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private Boolean enabled = true;
+
+    /**
+     * Paths (context-relative prefixes) served from the expensive group, e.g. BCrypt-heavy endpoints.
+     */
+    private List<String> expensivePaths = new ArrayList<>(List.of("/customer/login", "/customer/register"));
+
+    /**
+     * Requests per limit decision.
+     */
+    private Integer windowSize = 50;
+
+    /**
+     * Latency percentile of a window compared against the smoothed latency; the median keeps a minority of
+     * slow endpoints in a group from looking like congestion.
+     */
+    private Double latencyPercentile = 0.5;
+
+    /**
+     * A window whose latency percentile exceeds this multiple of the smoothed latency counts as congestion.
+     */
+    private Double latencyTolerance = 2.0;
+
+    /**
+     * Factor applied to the limit on congestion.
+     */
+    private Double backoffRatio = 0.9;
+
+    private Group defaultGroup = new Group(100, 20, 400);
+    private Group expensive = new Group(16, 2, 64);
+
+    @Data
+    public static class Group {
+        private Integer initialLimit;
+        private Integer minLimit;
+        private Integer maxLimit;
+
+        public Group() {
+        }
+
+        public Group(Integer initialLimit, Integer minLimit, Integer maxLimit) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.nuclea.api.config;
 
 import com.nuclea.api.security.ApiKeyFilter;
+import com.nuclea.api.security.ConcurrencyLimitFilter;
 import com.nuclea.api.security.JwtAuthenticationFilter;
+import com.nuclea.api.security.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -26,6 +29,8 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final ApiKeyFilter apiKeyFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -35,6 +40,8 @@ public class SecurityConfig {
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authorizeHttpRequests(auth -> auth
+                        // Cache administration can evict data, so it is restricted to administrators
+                        .requestMatchers("/actuator/cacheregions/**").hasRole("ADMIN")
                         // Public endpoints
                         .requestMatchers(
                                 "/customer/register",
@@ -42,6 +49,7 @@ public class SecurityConfig {
                                 "/customer/verify-email",
                                 "/customer/resend-verification",
                                 "/auth/refresh",
+                                "/.well-known/**",
                                 "/actuator/**",
                                 "/swagger-ui/**",
                                 "/api-docs/**",
@@ -51,13 +59,17 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(apiKeyFilter, UsernamePasswordAuthenticationFilter.class)
+                // Throttle before any API key, JWT or BCrypt work is done
+                .addFilterBefore(rateLimitFilter, ApiKeyFilter.class)
+                // Shed load first so rejected requests cost as little as possible
+                .addFilterBefore(concurrencyLimitFilter, RateLimitFilter.class)
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
@@ -0,0 +1,53 @@
+package com.nuclea.api.controller;
+
+import com.nuclea.api.controller.base.ApiBaseController;
+import com.nuclea.common.model.ApiResponse;
+import com.nuclea.common.service.file.FileUploadResult;
+import com.nuclea.common.service.file.FileUploadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * File controller for uploads.
+ */
+@RestController
+@RequestMapping("/file")
+@RequiredArgsConstructor
+public class FileController extends ApiBaseController {
+
+    private final FileUploadService fileUploadService;
+
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<String>> upload(@RequestParam("file") MultipartFile file) {
+        return safeExecute(() -> {
+            try {
+                return success(fileUploadService.uploadFile(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Raw request body upload: the body is streamed straight into the target file without multipart buffering.
+     */
+    @PostMapping(value = "/upload/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ApiResponse<FileUploadResult>> uploadStream(
+            @RequestParam(required = false) String filename,
+            @RequestParam(defaultValue = "false") boolean hash
+    ) {
+        return safeExecute(() -> {
+            try {
+                return success(fileUploadService.uploadStream(request.getInputStream(), filename, null, hash));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
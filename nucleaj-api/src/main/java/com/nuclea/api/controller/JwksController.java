@@ -0,0 +1,33 @@
+package com.nuclea.api.controller;
+
+import com.nuclea.common.config.JwtProperties;
+import com.nuclea.common.service.jwt.JwtKeyRing;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Publishes the JWT verification keys as a JWK Set so other services can validate tokens locally.
+ * The document is built when the key ring loads and is cacheable by clients.
+ */
+@RestController
+@RequestMapping("/.well-known")
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+    private final JwtProperties jwtProperties;
+
+    @GetMapping("/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(jwtProperties.getJwksCacheSeconds())).cachePublic())
+                .body(keyRing.jwks());
+    }
+}
@@ -1,6 +1,7 @@
 package com.nuclea.api.controller.base;
 
 import com.nuclea.common.model.ApiResponse;
+import com.nuclea.common.util.HttpRequestUtil;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -164,17 +165,7 @@ public abstract class ApiBaseController {
      * Get client IP address.
      */
     protected String getClientIpAddress() {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isBlank()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isBlank()) {
-            return xRealIp;
-        }
-
-        return request.getRemoteAddr();
+        return HttpRequestUtil.getClientIpAddress(request);
     }
 
     /**
@@ -0,0 +1,114 @@
+package com.nuclea.api.security;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD concurrency limiter driven by request latency.
+ * <p>
+ * Requests are judged in windows of {@code windowSize} samples rather than one at a time, so a group that
+ * mixes fast and slow endpoints does not read every slow request as congestion. When a window is full its
+ * {@code percentile} latency is compared with the smoothed latency of earlier windows: if it is above
+ * {@code tolerance} times that, or more than a tenth of the window failed, queueing is showing up
+ * downstream and the limit is multiplied by the backoff ratio. Otherwise the limit grows by its square
+ * root if at least half of it was in use during the window.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double LATENCY_SMOOTHING = 0.2;
+    private static final double MAX_FAILURE_RATE = 0.1;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final double percentile;
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private volatile double limit;
+    private double smoothedLatencyNanos;
+
+    // Current window, guarded by this
+    private final long[] windowLatencies;
+    private int windowSamples;
+    private int windowFailures;
+    private int windowMaxInflight;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double tolerance, double backoffRatio, int windowSize, double percentile) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.percentile = Math.max(0, Math.min(1, percentile));
+        this.windowLatencies = new long[Math.max(1, windowSize)];
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Take a slot if the current limit allows it.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Return a slot and feed the request outcome into the limit.
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int inflightBefore = inflight.getAndDecrement();
+        update(latencyNanos, failed, inflightBefore);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    private synchronized void update(long latencyNanos, boolean failed, int inflightBefore) {
+        windowLatencies[windowSamples++] = latencyNanos;
+        if (failed) {
+            windowFailures++;
+        }
+        windowMaxInflight = Math.max(windowMaxInflight, inflightBefore);
+        if (windowSamples < windowLatencies.length) {
+            return;
+        }
+
+        Arrays.sort(windowLatencies);
+        long windowLatency = windowLatencies[Math.max(0, (int) Math.ceil(percentile * windowSamples) - 1)];
+        boolean congested = windowFailures > windowSamples * MAX_FAILURE_RATE
+                || (smoothedLatencyNanos > 0 && windowLatency > smoothedLatencyNanos * tolerance);
+
+        smoothedLatencyNanos = smoothedLatencyNanos == 0
+                ? windowLatency
+                : smoothedLatencyNanos + LATENCY_SMOOTHING * (windowLatency - smoothedLatencyNanos);
+
+        if (congested) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (windowMaxInflight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + Math.sqrt(limit));
+        }
+
+        windowSamples = 0;
+        windowFailures = 0;
+        windowMaxInflight = 0;
+    }
+}
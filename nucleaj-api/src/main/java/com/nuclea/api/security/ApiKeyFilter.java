@@ -1,5 +1,6 @@
 package com.nuclea.api.security;
 
+import com.nuclea.common.util.HttpRequestUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -30,10 +31,10 @@ public class ApiKeyFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
 
-        // Skip API key validation for actuator endpoints
-        String requestPath = request.getRequestURI();
+        // Skip API key validation for actuator, docs and public key endpoints
+        String requestPath = HttpRequestUtil.getPathWithinApplication(request);
         if (requestPath.startsWith("/actuator") || requestPath.startsWith("/swagger") ||
-            requestPath.startsWith("/api-docs")) {
+            requestPath.startsWith("/api-docs") || requestPath.startsWith("/.well-known")) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -43,7 +44,7 @@ public class ApiKeyFilter extends OncePerRequestFilter {
         if (apiKey == null || apiKey.isBlank() || apiKey.equals(requestApiKey)) {
             filterChain.doFilter(request, response);
         } else {
-            log.warn("Invalid API key from IP: {}", request.getRemoteAddr());
+            log.warn("Invalid API key from IP: {}", HttpRequestUtil.getClientIpAddress(request));
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json");
             response.getWriter().write("{\"success\":false,\"message\":\"Invalid or missing API key\"}");
@@ -0,0 +1,119 @@
+package com.nuclea.api.security;
+
+import com.nuclea.api.config.ConcurrencyLimitProperties;
+import com.nuclea.common.util.HttpRequestUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load shedding filter.
+ * <p>
+ * Requests pass through an {@link AdaptiveConcurrencyLimiter} per endpoint group (expensive paths such as
+ * login/register vs. everything else). When a group is at its limit the request is rejected immediately
+ * with 503 and Retry-After instead of queueing on the servlet thread pool.
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final ConcurrencyLimitProperties properties;
+    private final AdaptiveConcurrencyLimiter defaultLimiter;
+    private final AdaptiveConcurrencyLimiter expensiveLimiter;
+    private final Map<String, Counter> rejectedCounters = new HashMap<>();
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.properties = properties;
+        this.defaultLimiter = createLimiter("default", properties.getDefaultGroup());
+        this.expensiveLimiter = createLimiter("expensive", properties.getExpensive());
+
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        if (meterRegistry != null) {
+            bindMetrics(meterRegistry, defaultLimiter);
+            bindMetrics(meterRegistry, expensiveLimiter);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!Boolean.TRUE.equals(properties.getEnabled())) {
+            return true;
+        }
+        String requestPath = HttpRequestUtil.getPathWithinApplication(request);
+        return requestPath.startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        AdaptiveConcurrencyLimiter limiter = limiterFor(HttpRequestUtil.getPathWithinApplication(request));
+        if (!limiter.tryAcquire()) {
+            Counter rejected = rejectedCounters.get(limiter.getName());
+            if (rejected != null) {
+                rejected.increment();
+            }
+            log.debug("Request shed by {} concurrency limit ({})", limiter.getName(), limiter.getLimit());
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "1");
+            response.setContentType("application/json");
+            response.getWriter().write("{\"success\":false,\"message\":\"Service is busy, please retry\"}");
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        } finally {
+            limiter.release(System.nanoTime() - startedAt, failed);
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter limiterFor(String requestPath) {
+        for (String path : properties.getExpensivePaths()) {
+            if (requestPath.startsWith(path)) {
+                return expensiveLimiter;
+            }
+        }
+        return defaultLimiter;
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(String name, ConcurrencyLimitProperties.Group group) {
+        return new AdaptiveConcurrencyLimiter(name, group.getInitialLimit(), group.getMinLimit(), group.getMaxLimit(),
+                properties.getLatencyTolerance(), properties.getBackoffRatio(),
+                properties.getWindowSize(), properties.getLatencyPercentile());
+    }
+
+    private void bindMetrics(MeterRegistry meterRegistry, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("nuclea.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("group", limiter.getName())
+                .register(meterRegistry);
+        Gauge.builder("nuclea.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+                .description("Requests currently in flight")
+                .tag("group", limiter.getName())
+                .register(meterRegistry);
+        rejectedCounters.put(limiter.getName(), Counter.builder("nuclea.concurrency.rejected")
+                .description("Requests shed by the concurrency limiter")
+                .tag("group", limiter.getName())
+                .register(meterRegistry));
+    }
+}
@@ -1,33 +1,59 @@
 package com.nuclea.api.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nuclea.common.constants.SecurityClaimKeys;
 import com.nuclea.common.service.jwt.IJwtService;
 import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * JWT Authentication Filter.
  * Extracts and validates JWT from Authorization header.
+ * Validated claims are cached by SHA-256 of the token until the token expires, capped at
+ * {@code app.security.jwt-cache.max-ttl}, so repeat requests skip signature verification.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final IJwtService jwtService;
+    private final Cache<String, Claims> claimsCache;
+
+    public JwtAuthenticationFilter(
+            IJwtService jwtService,
+            @Value("${app.security.jwt-cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.security.jwt-cache.max-ttl:5m}") Duration maxTtl
+    ) {
+        this.jwtService = jwtService;
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ClaimsExpiry(maxTtl))
+                .build();
+    }
 
     @Override
     protected void doFilterInternal(
@@ -40,7 +66,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = extractTokenFromRequest(request);
 
             if (token != null) {
-                Claims claims = jwtService.validateToken(token);
+                Claims claims = validateCached(token);
 
                 if (claims != null) {
                     String userId = claims.getSubject();
@@ -50,7 +76,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                             new UsernamePasswordAuthenticationToken(
                                     userId,
                                     null,
-                                    Collections.emptyList()
+                                    authorities(claims)
                             );
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
@@ -69,6 +95,44 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Authorities from the {@code roles} claim as {@code ROLE_<name>}; customer tokens carry none.
+     */
+    private static List<GrantedAuthority> authorities(Claims claims) {
+        if (!(claims.get(SecurityClaimKeys.ROLES) instanceof Collection<?> roles)) {
+            return List.of();
+        }
+        return roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority("ROLE_" + role))
+                .toList();
+    }
+
+    /**
+     * Validate token, reusing the claims of an earlier validation of the same token.
+     */
+    private Claims validateCached(String token) {
+        String tokenHash = hash(token);
+        Claims claims = claimsCache.getIfPresent(tokenHash);
+        if (claims != null) {
+            return claims;
+        }
+
+        claims = jwtService.validateToken(token);
+        if (claims != null && claims.getExpiration() != null) {
+            claimsCache.put(tokenHash, claims);
+        }
+        return claims;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     /**
      * Extract JWT token from Authorization header.
      */
@@ -79,4 +143,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
+
+    /**
+     * Keeps claims no longer than the token's own expiry and the configured maximum.
+     */
+    private static final class ClaimsExpiry implements Expiry<String, Claims> {
+
+        private final long maxTtlNanos;
+
+        private ClaimsExpiry(Duration maxTtl) {
+            this.maxTtlNanos = maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return Math.max(0, Math.min(maxTtlNanos, Duration.ofMillis(remainingMillis).toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
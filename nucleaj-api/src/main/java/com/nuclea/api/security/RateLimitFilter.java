@@ -0,0 +1,160 @@
+package com.nuclea.api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nuclea.common.util.HttpRequestUtil;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client rate limiting filter.
+ * <p>
+ * Clients are identified by {@code request.getRemoteAddr()}, never by raw forwarding headers, which the
+ * client controls; behind a proxy the real address comes from {@code server.forward-headers-strategy=native},
+ * which only trusts {@code X-Forwarded-For} hops added by {@code server.tomcat.remoteip.internal-proxies}. Locally each client gets a lock-free Bucket4j
+ * token bucket of {@code app.rate-limit.requests-per-minute}; buckets live in a bounded cache and are
+ * dropped after {@code app.rate-limit.bucket-idle-timeout}. With {@code app.rate-limit.distributed=true}
+ * a fixed one-minute window shared through Redis is used instead, falling back to the local bucket
+ * when Redis is unavailable.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String REDIS_KEY_PREFIX = "ratelimit:";
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+
+    /**
+     * INCR the window counter, starting its expiry on first hit; returns {count, remaining ttl ms}.
+     */
+    private static final RedisScript<List> FIXED_WINDOW_SCRIPT = new DefaultRedisScript<>(
+            "local count = redis.call('INCR', KEYS[1]) " +
+            "if count == 1 then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end " +
+            "return {count, redis.call('PTTL', KEYS[1])}",
+            List.class
+    );
+
+    private final boolean enabled;
+    private final long requestsPerMinute;
+    private final boolean distributed;
+    private final Cache<String, Bucket> buckets;
+    private final StringRedisTemplate redisTemplate;
+    private final Counter rejectedCounter;
+
+    public RateLimitFilter(
+            @Value("${app.rate-limit.enabled:false}") boolean enabled,
+            @Value("${app.rate-limit.requests-per-minute:100}") long requestsPerMinute,
+            @Value("${app.rate-limit.max-buckets:100000}") long maxBuckets,
+            @Value("${app.rate-limit.bucket-idle-timeout:10m}") Duration bucketIdleTimeout,
+            @Value("${app.rate-limit.distributed:false}") boolean distributed,
+            ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+            ObjectProvider<MeterRegistry> meterRegistryProvider
+    ) {
+        this.enabled = enabled;
+        this.requestsPerMinute = requestsPerMinute;
+        this.redisTemplate = distributed ? redisTemplateProvider.getIfAvailable() : null;
+        this.distributed = this.redisTemplate != null;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(bucketIdleTimeout)
+                .build();
+
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        this.rejectedCounter = meterRegistry == null ? null : Counter.builder("nuclea.ratelimit.rejected")
+                .description("Requests rejected by the rate limiter")
+                .register(meterRegistry);
+
+        if (distributed && this.redisTemplate == null) {
+            log.warn("Distributed rate limiting requested but Redis is not configured, using in-memory buckets");
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String requestPath = HttpRequestUtil.getPathWithinApplication(request);
+        return requestPath.startsWith("/actuator") || requestPath.startsWith("/swagger") ||
+               requestPath.startsWith("/api-docs") || requestPath.startsWith("/.well-known");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String clientId = request.getRemoteAddr();
+        Decision decision = distributed ? tryAcquireDistributed(clientId) : tryAcquireLocal(clientId);
+
+        response.setHeader("X-RateLimit-Limit", String.valueOf(requestsPerMinute));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(Math.max(0, decision.remaining())));
+
+        if (decision.allowed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (rejectedCounter != null) {
+            rejectedCounter.increment();
+        }
+        log.warn("Rate limit exceeded for IP: {}", clientId);
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf(Math.max(1, decision.retryAfterSeconds())));
+        response.setContentType("application/json");
+        response.getWriter().write("{\"success\":false,\"message\":\"Too many requests\"}");
+    }
+
+    private Decision tryAcquireLocal(String clientId) {
+        Bucket bucket = buckets.get(clientId, id -> Bucket.builder()
+                .addLimit(Bandwidth.builder()
+                        .capacity(requestsPerMinute)
+                        .refillGreedy(requestsPerMinute, WINDOW)
+                        .build())
+                .build());
+
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        long retryAfter = TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()) + 1;
+        return new Decision(probe.isConsumed(), probe.getRemainingTokens(), retryAfter);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Decision tryAcquireDistributed(String clientId) {
+        try {
+            List<Long> result = (List<Long>) redisTemplate.execute(
+                    FIXED_WINDOW_SCRIPT, List.of(REDIS_KEY_PREFIX + clientId), String.valueOf(WINDOW.toMillis()));
+            long count = result.get(0);
+            long ttlMillis = Math.max(0, result.get(1));
+            return new Decision(count <= requestsPerMinute, requestsPerMinute - count, (ttlMillis + 999) / 1000);
+        } catch (Exception e) {
+            log.debug("Redis rate limit check failed, using local bucket: {}", e.getMessage());
+            return tryAcquireLocal(clientId);
+        }
+    }
+
+    private record Decision(boolean allowed, long remaining, long retryAfterSeconds) {
+    }
+}
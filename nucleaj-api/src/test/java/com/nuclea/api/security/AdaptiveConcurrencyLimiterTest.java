@@ -0,0 +1,90 @@
+package com.nuclea.api.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for AdaptiveConcurrencyLimiter.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void tryAcquire_AtLimit_Rejects() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 2.0, 0.5, 10, 0.5);
+
+        // When
+        boolean first = limiter.tryAcquire();
+        boolean second = limiter.tryAcquire();
+        boolean third = limiter.tryAcquire();
+
+        // Then
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertEquals(2, limiter.getInflight());
+    }
+
+    @Test
+    void release_FailedWindow_ShrinksLimitAndBusyFastWindow_GrowsIt() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 8, 2, 10, 2.0, 0.5, 4, 0.5);
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+            limiter.release(1_000_000, true);
+        }
+        int afterFailures = limiter.getLimit();
+
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+        for (int i = 0; i < 4; i++) {
+            limiter.release(1_000_000, false);
+        }
+        int afterBusyWindow = limiter.getLimit();
+
+        // Then
+        assertEquals(4, afterFailures);
+        assertEquals(6, afterBusyWindow);
+    }
+
+    @Test
+    void release_WindowSlowerThanBaseline_ShrinksLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 8, 2, 10, 2.0, 0.5, 10, 0.5);
+        releaseWindow(limiter, 10, 1_000_000, 0, 0);
+
+        // When
+        releaseWindow(limiter, 10, 10_000_000, 0, 0);
+
+        // Then
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void release_MixedFastAndSlowRequests_KeepLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 8, 2, 10, 2.0, 0.5, 10, 0.5);
+
+        // When: every window holds a few requests far slower than the rest
+        for (int window = 0; window < 5; window++) {
+            releaseWindow(limiter, 10, 1_000_000, 3, 100_000_000);
+        }
+
+        // Then
+        assertEquals(8, limiter.getLimit());
+    }
+
+    private static void releaseWindow(AdaptiveConcurrencyLimiter limiter, int samples, long latencyNanos,
+                                      int slowSamples, long slowLatencyNanos) {
+        for (int i = 0; i < samples; i++) {
+            limiter.tryAcquire();
+            limiter.release(i < slowSamples ? slowLatencyNanos : latencyNanos, false);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.nuclea.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nuclea.data.entity.appsettings.AppSettings;
+import com.nuclea.data.entity.customer.Customer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Representative cached values shared by the benchmarks.
+ */
+public final class BenchmarkPayloads {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 15, 10, 30);
+
+    private BenchmarkPayloads() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * ObjectMapper configured like the application's (Java time support, unknown properties ignored).
+     */
+    public static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    public static Customer customer(long id) {
+        Customer customer = Customer.builder()
+                .id(id)
+                .firstName("Ayşe")
+                .lastName("Yılmaz")
+                .email("customer" + id + "@example.com")
+                .passwordHash("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5C2rZ.h8Gj1aZ0vK3qgJ9oW")
+                .isEmailVerified(true)
+                .isActive(true)
+                .lastLoginDate(CREATED.plusDays(30))
+                .build();
+        customer.setCreatedDate(CREATED);
+        customer.setUpdatedDate(CREATED.plusDays(1));
+        return customer;
+    }
+
+    /**
+     * A settings list the size of a typical app_settings region.
+     */
+    public static List<AppSettings> appSettings(int count) {
+        List<AppSettings> settings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            AppSettings setting = AppSettings.builder()
+                    .id((long) i)
+                    .settingKey("SMTP_Setting_" + i)
+                    .settingValue("smtp" + i + ".example.com")
+                    .description("Mail server setting used by outgoing notifications")
+                    .displayOrder(i)
+                    .build();
+            setting.setCreatedDate(CREATED);
+            settings.add(setting);
+        }
+        return settings;
+    }
+}
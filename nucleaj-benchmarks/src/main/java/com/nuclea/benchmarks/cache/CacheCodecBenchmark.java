@@ -0,0 +1,72 @@
+package com.nuclea.benchmarks.cache;
+
+import com.nuclea.benchmarks.BenchmarkPayloads;
+import com.nuclea.common.config.CacheCodecProperties;
+import com.nuclea.common.service.cache.codec.CacheValueSerializer;
+import com.nuclea.data.entity.appsettings.AppSettings;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode latency of the Redis cache value codecs for a {@code Customer} and an {@code app_settings}
+ * region sized payload. The encoded size (bytes per entry) is printed once per parameter combination;
+ * {@code json} is the baseline wire format.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheCodecBenchmark {
+
+    private static final int APP_SETTINGS_COUNT = 50;
+
+    @Param({"json", "smile", "cbor"})
+    public String codec;
+
+    @Param({"customer", "app_settings"})
+    public String payload;
+
+    @Param({"true", "false"})
+    public boolean compression;
+
+    private CacheValueSerializer serializer;
+    private String key;
+    private Object value;
+    private Class<?> type;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        CacheCodecProperties properties = new CacheCodecProperties();
+        properties.setDefaultCodec(codec);
+        properties.setCompressionEnabled(compression);
+        serializer = new CacheValueSerializer(BenchmarkPayloads.objectMapper(), properties);
+
+        if ("customer".equals(payload)) {
+            key = "customer:1";
+            value = BenchmarkPayloads.customer(1);
+            type = value.getClass();
+        } else {
+            key = "app_settings:all";
+            value = BenchmarkPayloads.appSettings(APP_SETTINGS_COUNT).toArray(new AppSettings[0]);
+            type = AppSettings[].class;
+        }
+
+        encoded = serializer.serialize(key, value);
+        System.out.printf("%s/%s (compression %s): %d bytes per entry%n", codec, payload, compression, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return serializer.serialize(key, value);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return serializer.deserialize(encoded, type);
+    }
+}
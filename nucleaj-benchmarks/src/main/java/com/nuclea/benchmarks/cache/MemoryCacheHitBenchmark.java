@@ -0,0 +1,56 @@
+package com.nuclea.benchmarks.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nuclea.benchmarks.BenchmarkPayloads;
+import com.nuclea.common.service.cache.CacheMetrics;
+import com.nuclea.common.service.cache.MemoryCacheManager;
+import com.nuclea.data.entity.customer.Customer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache hit latency of {@link MemoryCacheManager#get} for an entity.
+ * <p>
+ * {@code hit} is the current lookup (stored instance returned as-is, or copied with {@code defensiveCopy});
+ * {@code convertOnEveryHit} is the ObjectMapper conversion every hit used to pay, as the baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemoryCacheHitBenchmark {
+
+    private static final String KEY = "customer:1";
+
+    @Param({"false", "true"})
+    public boolean defensiveCopy;
+
+    private ObjectMapper objectMapper;
+    private MemoryCacheManager cacheManager;
+    private Customer customer;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkPayloads.objectMapper();
+        CacheMetrics cacheMetrics = new CacheMetrics(new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        cacheManager = new MemoryCacheManager(objectMapper, cacheMetrics, defensiveCopy);
+        customer = BenchmarkPayloads.customer(1);
+        cacheManager.set(KEY, customer, Duration.ofHours(1));
+    }
+
+    @Benchmark
+    public Customer hit() {
+        return cacheManager.get(KEY, Customer.class);
+    }
+
+    @Benchmark
+    public Customer convertOnEveryHit() {
+        return objectMapper.convertValue(customer, Customer.class);
+    }
+}
@@ -0,0 +1,84 @@
+package com.nuclea.benchmarks.concurrency;
+
+import com.nuclea.common.util.ThreadFactories;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests per second when {@value #CONCURRENCY} I/O-bound requests arrive at once, served by a platform
+ * pool sized like Tomcat's default ({@value #PLATFORM_POOL_SIZE} threads) or by one virtual thread per request
+ * ({@code spring.threads.virtual.enabled=true}). Each request blocks for {@value #IO_LATENCY_MILLIS} ms, like
+ * a SQL Server query or SMTP command.
+ * <p>
+ * Peak platform thread count and committed memory are printed at the end of each trial; run with
+ * {@code -prof gc} for allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class VirtualThreadLoadBenchmark {
+
+    private static final int CONCURRENCY = 10_000;
+    private static final int PLATFORM_POOL_SIZE = 200;
+    private static final long IO_LATENCY_MILLIS = 10;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        executor = "virtual".equals(threads)
+                ? Executors.newThreadPerTaskExecutor(ThreadFactories.named("load-virtual", true))
+                : Executors.newFixedThreadPool(PLATFORM_POOL_SIZE, ThreadFactories.named("load-platform", false));
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENCY)
+    public long serveConcurrentRequests() throws Exception {
+        List<Future<Integer>> responses = new ArrayList<>(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            int request = i;
+            responses.add(executor.submit(() -> handleRequest(request)));
+        }
+
+        long total = 0;
+        for (Future<Integer> response : responses) {
+            total += response.get();
+        }
+        return total;
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        System.out.printf("%s threads: peak %d platform threads, %d MB heap and %d MB non-heap committed%n",
+                threads,
+                threadBean.getPeakThreadCount(),
+                memoryBean.getHeapMemoryUsage().getCommitted() / (1024 * 1024),
+                memoryBean.getNonHeapMemoryUsage().getCommitted() / (1024 * 1024));
+
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static int handleRequest(int request) throws InterruptedException {
+        Thread.sleep(IO_LATENCY_MILLIS);
+        return request & 0xFF;
+    }
+}
@@ -0,0 +1,46 @@
+package com.nuclea.benchmarks.email;
+
+import com.nuclea.common.config.FreeMarkerConfig;
+import com.nuclea.common.service.email.EmailTemplateService;
+import freemarker.template.Configuration;
+import freemarker.template.TemplateException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders per second of {@code email-verification.ftl} through {@link EmailTemplateService}.
+ * {@code precompile=false} is FreeMarker's own lookup with staleness checks on every render, as before.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EmailTemplateRenderBenchmark {
+
+    private static final String TEMPLATE = "email-verification";
+
+    @Param({"true", "false"})
+    public boolean precompile;
+
+    private EmailTemplateService templateService;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setUp() throws IOException, TemplateException {
+        Configuration configuration = new FreeMarkerConfig().freemarkerConfiguration(precompile).createConfiguration();
+        templateService = new EmailTemplateService(configuration, precompile);
+        templateService.precompileTemplates();
+        variables = Map.of("firstName", "Ayşe", "verificationCode", "482913");
+    }
+
+    @Benchmark
+    public String render() {
+        return templateService.processTemplate(TEMPLATE, variables);
+    }
+}
@@ -0,0 +1,115 @@
+package com.nuclea.benchmarks.email;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.nuclea.common.config.FreeMarkerConfig;
+import com.nuclea.common.service.email.EmailTemplateService;
+import com.nuclea.common.service.email.MailBatchItem;
+import com.nuclea.common.service.email.MailBatchResult;
+import com.nuclea.common.service.email.MailBatchSender;
+import com.nuclea.common.service.email.MailService;
+import com.nuclea.common.service.email.SmtpConnectionPool;
+import com.nuclea.common.service.resilience.ResilienceGuard;
+import freemarker.template.Configuration;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Messages per second sent to a local SMTP stand-in (GreenMail).
+ * <p>
+ * {@code sendBatch} goes through {@link MailBatchSender} with unpaced workers reusing one transport each;
+ * {@code sendTemplateEmailEach} calls {@link MailService#sendTemplateEmail} per recipient, which opens a
+ * transport per message, as the baseline.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MailBatchSendBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+    private static final String TEMPLATE = "email-verification";
+
+    @Param({"1", "4"})
+    public int workers;
+
+    private GreenMail smtpServer;
+    private MailBatchSender batchSender;
+    private MailService mailService;
+    private List<MailBatchItem> items;
+
+    @Setup
+    public void setUp() throws Exception {
+        smtpServer = new GreenMail(ServerSetupTest.SMTP);
+        smtpServer.start();
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        Configuration configuration = new FreeMarkerConfig().freemarkerConfiguration(true).createConfiguration();
+        EmailTemplateService templateService = new EmailTemplateService(configuration, true);
+        templateService.precompileTemplates();
+
+        ResilienceGuard resilienceGuard = new ResilienceGuard(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults());
+        SmtpConnectionPool connectionPool = new SmtpConnectionPool(mailSender, resilienceGuard);
+        batchSender = new MailBatchSender(mailSender, templateService, connectionPool, workers, 0);
+        mailService = new MailService(mailSender, templateService, null, batchSender, resilienceGuard);
+        for (Object sender : List.of(batchSender, mailService)) {
+            ReflectionTestUtils.setField(sender, "fromEmail", "noreply@nuclea.com");
+            ReflectionTestUtils.setField(sender, "fromName", "Nuclea");
+        }
+
+        items = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            items.add(new MailBatchItem(
+                    "customer" + i + "@example.com",
+                    "Email Verification",
+                    TEMPLATE,
+                    Map.of("firstName", "Customer " + i, "verificationCode", String.format("%06d", i))
+            ));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public MailBatchResult sendBatch() {
+        return batchSender.send(items);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int sendTemplateEmailEach() {
+        int sent = 0;
+        for (MailBatchItem item : items) {
+            if (mailService.sendTemplateEmail(item.to(), item.subject(), item.templateName(), item.variables())) {
+                sent++;
+            }
+        }
+        return sent;
+    }
+
+    /**
+     * Drop received messages so the stand-in's memory does not grow over the run.
+     */
+    @TearDown(Level.Iteration)
+    public void purgeMailboxes() throws Exception {
+        smtpServer.purgeEmailFromAllMailboxes();
+    }
+
+    @TearDown
+    public void tearDown() {
+        batchSender.shutdown();
+        smtpServer.stop();
+    }
+}
@@ -0,0 +1,70 @@
+package com.nuclea.benchmarks.security;
+
+import com.nuclea.api.security.JwtAuthenticationFilter;
+import com.nuclea.common.config.JwtProperties;
+import com.nuclea.common.service.jwt.JwtKeyRing;
+import com.nuclea.common.service.jwt.JwtService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link JwtAuthenticationFilter} for a repeat caller presenting the same HS256 token.
+ * {@code cached=false} expires cached claims immediately, so every request verifies the signature.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain CHAIN = (request, response) -> { };
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecretKey("benchmark-secret-key-at-least-32-bytes-long");
+        jwtProperties.setIssuer("nuclea");
+        jwtProperties.setAudience("nuclea-api");
+
+        JwtKeyRing keyRing = new JwtKeyRing(jwtProperties, new DefaultResourceLoader());
+        keyRing.init();
+        JwtService jwtService = new JwtService(jwtProperties, keyRing);
+        jwtService.init();
+
+        filter = new JwtAuthenticationFilter(jwtService, 10_000, cached ? Duration.ofMinutes(5) : Duration.ZERO);
+
+        String token = jwtService.generateAccessToken(1L, "customer1@example.com", Map.of());
+        request = new MockHttpServletRequest("GET", "/customer/profile");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object doFilter() throws ServletException, IOException {
+        filter.doFilter(request, response, CHAIN);
+        Object userId = request.getAttribute("userId");
+        // Reset per-request state so the next call is filtered again
+        request.clearAttributes();
+        SecurityContextHolder.clearContext();
+        return userId;
+    }
+}
@@ -0,0 +1,164 @@
+package com.nuclea.business.caching.model;
+
+import com.nuclea.data.entity.appsettings.AppSettings;
+import com.nuclea.data.entity.appsettings.AppSettingsGroup;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, versioned view of all active app settings.
+ * Typed values are parsed once when the snapshot is built; a reload publishes a new snapshot.
+ */
+public final class AppSettingsSnapshot {
+
+    private final long version;
+    private final Instant loadedAt;
+    private final Map<String, SettingValue> valuesByKey;
+    private final Map<String, List<SettingValue>> valuesByGroup;
+
+    private AppSettingsSnapshot(long version, Map<String, SettingValue> valuesByKey,
+                                Map<String, List<SettingValue>> valuesByGroup) {
+        this.version = version;
+        this.loadedAt = Instant.now();
+        this.valuesByKey = valuesByKey;
+        this.valuesByGroup = valuesByGroup;
+    }
+
+    /**
+     * Build a snapshot from settings loaded with their group.
+     */
+    public static AppSettingsSnapshot of(long version, Collection<AppSettings> settings) {
+        Map<String, SettingValue> valuesByKey = new HashMap<>();
+        Map<String, List<SettingValue>> valuesByGroup = new HashMap<>();
+
+        for (AppSettings setting : settings) {
+            AppSettingsGroup group = setting.getGroup();
+            SettingValue value = SettingValue.parse(
+                    setting.getSettingKey(),
+                    setting.getSettingValue(),
+                    group != null ? group.getGroupKey() : null
+            );
+            valuesByKey.put(value.key(), value);
+            if (value.groupKey() != null) {
+                valuesByGroup.computeIfAbsent(value.groupKey(), k -> new ArrayList<>()).add(value);
+            }
+        }
+
+        Map<String, List<SettingValue>> immutableGroups = new HashMap<>();
+        valuesByGroup.forEach((groupKey, values) -> immutableGroups.put(groupKey, List.copyOf(values)));
+        return new AppSettingsSnapshot(version, Map.copyOf(valuesByKey), Map.copyOf(immutableGroups));
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    public int size() {
+        return valuesByKey.size();
+    }
+
+    public SettingValue get(String key) {
+        return valuesByKey.get(key);
+    }
+
+    public String getString(String key) {
+        SettingValue value = valuesByKey.get(key);
+        return value != null ? value.raw() : null;
+    }
+
+    public Integer getInt(String key) {
+        SettingValue value = valuesByKey.get(key);
+        return value != null ? value.intValue() : null;
+    }
+
+    public Long getLong(String key) {
+        SettingValue value = valuesByKey.get(key);
+        return value != null ? value.longValue() : null;
+    }
+
+    public Boolean getBoolean(String key) {
+        SettingValue value = valuesByKey.get(key);
+        return value != null ? value.boolValue() : null;
+    }
+
+    public Duration getDuration(String key) {
+        SettingValue value = valuesByKey.get(key);
+        return value != null ? value.durationValue() : null;
+    }
+
+    /**
+     * Settings of a group by {@code AppSettingsGroup.groupKey}, in display order.
+     */
+    public List<SettingValue> getGroup(String groupKey) {
+        return valuesByGroup.getOrDefault(groupKey, List.of());
+    }
+
+    /**
+     * A setting with its value pre-parsed into the supported types; types that do not parse are null.
+     */
+    public record SettingValue(
+            String key,
+            String raw,
+            String groupKey,
+            Integer intValue,
+            Long longValue,
+            Boolean boolValue,
+            Duration durationValue
+    ) {
+
+        public static SettingValue parse(String key, String raw, String groupKey) {
+            String trimmed = raw != null ? raw.trim() : null;
+            Long longValue = parseLong(trimmed);
+            Integer intValue = longValue != null && longValue == longValue.intValue() ? longValue.intValue() : null;
+            return new SettingValue(key, raw, groupKey, intValue, longValue, parseBoolean(trimmed), parseDuration(trimmed));
+        }
+
+        private static Long parseLong(String value) {
+            if (value == null || value.isEmpty()) {
+                return null;
+            }
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static Boolean parseBoolean(String value) {
+            if (value == null) {
+                return null;
+            }
+            return switch (value.toLowerCase(Locale.ROOT)) {
+                case "true", "1", "yes" -> Boolean.TRUE;
+                case "false", "0", "no" -> Boolean.FALSE;
+                default -> null;
+            };
+        }
+
+        /**
+         * Accepts ISO-8601 ({@code PT30S}), simple ({@code 30s}) or plain milliseconds.
+         */
+        private static Duration parseDuration(String value) {
+            if (value == null || value.isEmpty()) {
+                return null;
+            }
+            try {
+                return DurationStyle.detectAndParse(value);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -1,31 +1,91 @@
 package com.nuclea.business.caching.service;
 
+import com.nuclea.business.caching.model.AppSettingsSnapshot;
 import com.nuclea.common.constants.CacheKeys;
 import com.nuclea.common.service.cache.ICacheManager;
-import com.nuclea.common.service.marker.IScopedService;
+import com.nuclea.common.service.marker.ISingletonService;
+import com.nuclea.common.util.ThreadFactories;
 import com.nuclea.data.entity.appsettings.AppSettings;
 import com.nuclea.data.repository.appsettings.AppSettingsRepository;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * App settings caching service.
- * Caches all app settings on application startup.
+ * Caches all app settings on application startup and keeps them fresh in the background.
+ * <p>
+ * Entries are refreshed after {@code app.settings.cache.refresh-after}: a read of a due entry returns the
+ * cached value and schedules an asynchronous reload, and a periodic sweep reloads settings whose
+ * {@code updatedDate} changed plus any due entries nobody read. TTLs are jittered so entries never expire
+ * together, and the hard TTL is only a safety net once the cache is warm.
+ * <p>
+ * {@code updatedDate} is stamped before commit by whichever node made the change, so each sweep looks back
+ * {@code app.settings.cache.sweep-overlap} before the previous one to catch late commits and clock skew;
+ * changes already applied are remembered so the overlap does not reload them again.
+ * <p>
+ * Value reads are served from an immutable {@link AppSettingsSnapshot} swapped in on every full or delta
+ * reload, so they cost a map lookup. Until the first snapshot is published they go through the cache manager.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class AppSettingsCachingService implements IScopedService {
+public class AppSettingsCachingService implements ISingletonService {
+
+    private static final int JITTER_BUCKETS = 8;
 
     private final AppSettingsRepository appSettingsRepository;
     private final ICacheManager cacheManager;
+    private final Duration ttl;
+    private final Duration refreshAfter;
+    private final double jitter;
+    private final Duration sweepOverlap;
+    private final Map<String, Long> refreshDeadlines = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    // Setting id to the updatedDate already applied, kept while it falls inside the sweep overlap
+    private final Map<Long, LocalDateTime> appliedChanges = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor;
+
+    private final AtomicLong snapshotVersion = new AtomicLong();
+
+    private volatile LocalDateTime lastSweep;
+    private volatile AppSettingsSnapshot snapshot;
+
+    public AppSettingsCachingService(
+            AppSettingsRepository appSettingsRepository,
+            ICacheManager cacheManager,
+            @Value("${app.settings.cache.ttl:24h}") Duration ttl,
+            @Value("${app.settings.cache.refresh-after:1h}") Duration refreshAfter,
+            @Value("${app.settings.cache.jitter:0.1}") double jitter,
+            @Value("${app.settings.cache.sweep-overlap:5m}") Duration sweepOverlap,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.appSettingsRepository = appSettingsRepository;
+        this.cacheManager = cacheManager;
+        this.ttl = ttl;
+        this.refreshAfter = refreshAfter;
+        this.jitter = jitter;
+        this.sweepOverlap = sweepOverlap;
+        this.refreshExecutor = Executors.newSingleThreadExecutor(ThreadFactories.named("app-settings-refresh", virtualThreads));
+    }
 
     /**
      * Cache all settings on application startup.
@@ -34,46 +94,250 @@ public class AppSettingsCachingService implements IScopedService {
     public void cacheAllSettings() {
         log.info("Caching all app settings...");
 
-        List<AppSettings> settings = appSettingsRepository.findAllByIsActiveTrueOrderByDisplayOrder();
+        LocalDateTime sweepStart = LocalDateTime.now();
+        List<AppSettings> settings = appSettingsRepository.findAllActiveWithGroup();
+        cacheSettings(settings);
+        publishSnapshot(settings);
+        lastSweep = sweepStart;
 
-        for (AppSettings setting : settings) {
-            String cacheKey = CacheKeys.APP_SETTINGS_BY_KEY + setting.getSettingKey();
-            cacheManager.set(cacheKey, setting, Duration.ofHours(24));
+        log.info("Cached {} app settings", settings.size());
+    }
+
+    /**
+     * Reload settings changed since the last sweep and entries due for refresh.
+     */
+    @Scheduled(
+            fixedDelayString = "${app.settings.cache.sweep-interval-ms:60000}",
+            initialDelayString = "${app.settings.cache.sweep-interval-ms:60000}"
+    )
+    public void reloadChangedSettings() {
+        LocalDateTime since = lastSweep;
+        if (since == null) {
+            return;
         }
 
-        log.info("Cached {} app settings", settings.size());
+        try {
+            LocalDateTime sweepStart = LocalDateTime.now();
+            LocalDateTime from = since.minus(sweepOverlap);
+            appliedChanges.values().removeIf(updatedDate -> updatedDate.isBefore(from));
+            List<AppSettings> changed = appSettingsRepository.findAllByUpdatedDateGreaterThanEqual(from).stream()
+                    .filter(setting -> !setting.getUpdatedDate().equals(appliedChanges.get(setting.getId())))
+                    .toList();
+
+            List<AppSettings> active = new ArrayList<>();
+            for (AppSettings setting : changed) {
+                if (Boolean.TRUE.equals(setting.getIsActive())) {
+                    active.add(setting);
+                } else {
+                    evict(setting.getSettingKey());
+                }
+            }
+
+            List<String> dueKeys = dueKeys();
+            active.forEach(setting -> dueKeys.remove(setting.getSettingKey()));
+            if (!dueKeys.isEmpty()) {
+                List<AppSettings> reloaded = appSettingsRepository.findAllBySettingKeyInAndIsActiveTrue(dueKeys);
+                active.addAll(reloaded);
+                reloaded.forEach(setting -> dueKeys.remove(setting.getSettingKey()));
+                dueKeys.forEach(this::evict);
+            }
+
+            cacheSettings(active);
+            if (!changed.isEmpty() || !dueKeys.isEmpty() || snapshot == null) {
+                publishSnapshot(appSettingsRepository.findAllActiveWithGroup());
+            }
+            changed.forEach(setting -> appliedChanges.put(setting.getId(), setting.getUpdatedDate()));
+            lastSweep = sweepStart;
+
+            if (!changed.isEmpty()) {
+                log.info("Reloaded {} changed app settings", changed.size());
+            }
+        } catch (Exception e) {
+            log.error("Error reloading app settings: {}", e.getMessage());
+        }
     }
 
     /**
      * Get setting by key from cache or database.
+     * Once cached, a due entry is served as-is while it is reloaded in the background.
      */
     public Optional<AppSettings> getSettingByKey(String key) {
         String cacheKey = CacheKeys.APP_SETTINGS_BY_KEY + key;
 
-        return Optional.ofNullable(
-                cacheManager.getOrSet(
-                        cacheKey,
-                        AppSettings.class,
-                        Duration.ofHours(24),
-                        () -> appSettingsRepository.findBySettingKeyAndIsActiveTrue(key).orElse(null)
-                )
+        AppSettings cached = cacheManager.get(cacheKey, AppSettings.class);
+        if (cached != null) {
+            refreshIfDue(key);
+            return Optional.of(cached);
+        }
+
+        Duration expiration = jittered(ttl);
+        AppSettings setting = cacheManager.getOrSet(
+                cacheKey,
+                AppSettings.class,
+                expiration,
+                () -> appSettingsRepository.findBySettingKeyAndIsActiveTrue(key).orElse(null)
         );
+        if (setting != null) {
+            refreshDeadlines.putIfAbsent(key, System.nanoTime() + jittered(refreshAfter).toNanos());
+        }
+        return Optional.ofNullable(setting);
     }
 
     /**
      * Get setting value as string.
      */
     public String getSettingValue(String key) {
+        AppSettingsSnapshot current = snapshot;
+        if (current != null) {
+            return current.getString(key);
+        }
         return getSettingByKey(key)
                 .map(AppSettings::getSettingValue)
                 .orElse(null);
     }
 
     /**
-     * Clear app settings cache.
+     * Get setting value as int, or null when missing or not numeric.
+     */
+    public Integer getSettingInt(String key) {
+        AppSettingsSnapshot current = snapshot;
+        if (current != null) {
+            return current.getInt(key);
+        }
+        return AppSettingsSnapshot.SettingValue.parse(key, getSettingValue(key), null).intValue();
+    }
+
+    /**
+     * Get setting value as boolean, or null when missing or not a boolean.
+     */
+    public Boolean getSettingBoolean(String key) {
+        AppSettingsSnapshot current = snapshot;
+        if (current != null) {
+            return current.getBoolean(key);
+        }
+        return AppSettingsSnapshot.SettingValue.parse(key, getSettingValue(key), null).boolValue();
+    }
+
+    /**
+     * Get setting value as duration, or null when missing or not a duration.
+     */
+    public Duration getSettingDuration(String key) {
+        AppSettingsSnapshot current = snapshot;
+        if (current != null) {
+            return current.getDuration(key);
+        }
+        return AppSettingsSnapshot.SettingValue.parse(key, getSettingValue(key), null).durationValue();
+    }
+
+    /**
+     * Current settings snapshot, or null before the first load.
+     */
+    public AppSettingsSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Clear app settings cache and rebuild the snapshot from the database, so value reads do not keep
+     * serving the cleared settings. If the database cannot be read the snapshot is dropped and reads go
+     * through the cache manager until the next sweep publishes one.
      */
     public void clearCache() {
         cacheManager.removePattern(CacheKeys.APP_SETTINGS_BY_KEY + "*");
+        refreshDeadlines.clear();
+        appliedChanges.clear();
+        try {
+            publishSnapshot(appSettingsRepository.findAllActiveWithGroup());
+        } catch (Exception e) {
+            snapshot = null;
+            log.error("Error rebuilding app settings snapshot: {}", e.getMessage());
+        }
         log.info("App settings cache cleared");
     }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private void publishSnapshot(List<AppSettings> settings) {
+        AppSettingsSnapshot next = AppSettingsSnapshot.of(snapshotVersion.incrementAndGet(), settings);
+        snapshot = next;
+        log.debug("Published app settings snapshot v{} ({} settings)", next.version(), next.size());
+    }
+
+    /**
+     * Store settings with per-entry jitter, in a few bulk writes rather than one per key.
+     */
+    private void cacheSettings(Collection<AppSettings> settings) {
+        List<Map<String, AppSettings>> buckets = new ArrayList<>();
+        for (int i = 0; i < JITTER_BUCKETS; i++) {
+            buckets.add(new HashMap<>());
+        }
+
+        long now = System.nanoTime();
+        for (AppSettings setting : settings) {
+            int bucket = ThreadLocalRandom.current().nextInt(JITTER_BUCKETS);
+            buckets.get(bucket).put(CacheKeys.APP_SETTINGS_BY_KEY + setting.getSettingKey(), setting);
+            refreshDeadlines.put(setting.getSettingKey(), now + jittered(refreshAfter).toNanos());
+        }
+
+        for (Map<String, AppSettings> bucket : buckets) {
+            if (!bucket.isEmpty()) {
+                cacheManager.setAll(bucket, jittered(ttl));
+            }
+        }
+    }
+
+    private void refreshIfDue(String key) {
+        Long deadline = refreshDeadlines.get(key);
+        if (deadline != null && System.nanoTime() - deadline < 0) {
+            return;
+        }
+        if (!refreshing.add(key)) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    appSettingsRepository.findBySettingKeyAndIsActiveTrue(key)
+                            .ifPresentOrElse(setting -> cacheSettings(List.of(setting)), () -> evict(key));
+                } catch (Exception e) {
+                    log.error("Error refreshing app setting {}: {}", key, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.remove(key);
+            log.warn("App setting refresh for {} not scheduled: {}", key, e.getMessage());
+        }
+    }
+
+    private List<String> dueKeys() {
+        long now = System.nanoTime();
+        List<String> dueKeys = new ArrayList<>();
+        refreshDeadlines.forEach((key, deadline) -> {
+            if (now - deadline >= 0 && !refreshing.contains(key)) {
+                dueKeys.add(key);
+            }
+        });
+        return dueKeys;
+    }
+
+    private void evict(String key) {
+        cacheManager.remove(CacheKeys.APP_SETTINGS_BY_KEY + key);
+        refreshDeadlines.remove(key);
+    }
+
+    /**
+     * Spread a duration by +/- the configured jitter fraction.
+     */
+    private Duration jittered(Duration duration) {
+        if (jitter <= 0) {
+            return duration;
+        }
+        double factor = 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        return Duration.ofMillis((long) (duration.toMillis() * factor));
+    }
 }
@@ -0,0 +1,35 @@
+package com.nuclea.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Redis cache value codec configuration.
+ * Regions are cache key prefixes without the trailing colon (e.g. {@code app_settings}, {@code element}).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.cache.redis.codec")
+public class CacheCodecProperties {
+
+    /**
+     * Codec used for regions without an explicit mapping: json, smile or cbor.
+     */
+    private String defaultCodec = "smile";
+
+    /**
+     * Per-region codec overrides, e.g. {@code regions.app_settings=cbor}.
+     */
+    private Map<String, String> regions = new HashMap<>();
+
+    private Boolean compressionEnabled = true;
+
+    /**
+     * Encoded values at or above this size (bytes) are LZ4-compressed.
+     */
+    private Integer compressionThreshold = 1024;
+}
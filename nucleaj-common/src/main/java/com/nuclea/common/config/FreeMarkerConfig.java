@@ -1,9 +1,12 @@
 package com.nuclea.common.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.ui.freemarker.FreeMarkerConfigurationFactoryBean;
 
+import java.util.Properties;
+
 /**
  * FreeMarker configuration for email templates.
  */
@@ -11,10 +14,19 @@ import org.springframework.ui.freemarker.FreeMarkerConfigurationFactoryBean;
 public class FreeMarkerConfig {
 
     @Bean
-    public FreeMarkerConfigurationFactoryBean freemarkerConfiguration() {
+    public FreeMarkerConfigurationFactoryBean freemarkerConfiguration(
+            @Value("${app.mail.templates.precompile:true}") boolean precompile
+    ) {
         FreeMarkerConfigurationFactoryBean bean = new FreeMarkerConfigurationFactoryBean();
         bean.setTemplateLoaderPath("classpath:/templates/email/");
         bean.setDefaultEncoding("UTF-8");
+        bean.setPreferFileSystemAccess(!precompile);
+
+        // Precompiled templates never change at runtime; skip FreeMarker's periodic staleness checks
+        Properties settings = new Properties();
+        settings.setProperty("template_update_delay", precompile ? "2147483647s" : "0s");
+        settings.setProperty("cache_storage", "strong:64");
+        bean.setFreemarkerSettings(settings);
         return bean;
     }
 }
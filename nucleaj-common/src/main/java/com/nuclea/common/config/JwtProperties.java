@@ -4,6 +4,10 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * JWT configuration properties.
  */
@@ -22,4 +26,41 @@ public class JwtProperties {
     private Boolean validateLifetime = true;
     private Boolean validateIssuerSigningKey = true;
     private Integer clockSkewMinutes = 5;
+
+    /**
+     * Signing algorithm: HS256 (shared secret), RS256 or ES256 (key ring).
+     */
+    private String algorithm = "HS256";
+
+    /**
+     * Key ring entry used to sign new tokens (asymmetric algorithms only).
+     */
+    private String activeKeyId;
+
+    /**
+     * Key ring: every key still accepted for validation, by kid.
+     */
+    private List<SigningKey> keys = new ArrayList<>();
+
+    /**
+     * Optional JWKS URL to load validation keys from (for nodes without key files).
+     */
+    private String jwksUri;
+
+    /**
+     * When moving from HS256 to RS256/ES256: the time of the switch. Tokens signed with the shared secret
+     * (no kid) and issued before it are accepted until it plus the refresh token lifetime. Unset, such
+     * tokens are rejected.
+     */
+    private Instant legacyHmacSwitchedAt;
+
+    private Long keyReloadIntervalMs = 300_000L;
+    private Integer jwksCacheSeconds = 300;
+
+    @Data
+    public static class SigningKey {
+        private String id;
+        private String privateKeyLocation;
+        private String publicKeyLocation;
+    }
 }
@@ -1,5 +1,15 @@
 package com.nuclea.common.constants;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
 /**
  * Cache key constants for consistent cache naming.
  */
@@ -29,10 +39,70 @@ public final class CacheKeys {
     public static final String DISTRICTS = "districts";
     public static final String NEIGHBOURHOODS = "neighbourhoods";
 
+    /**
+     * Region for keys that do not start with any of the constants above.
+     */
+    public static final String OTHER_REGION = "other";
+
+    private static final List<String> REGIONS = collectRegions();
+
     /**
      * Generate a composite cache key.
      */
     public static String composite(String... parts) {
         return String.join(":", parts);
     }
+
+    /**
+     * All cache regions: the key constants of this class, longest first.
+     */
+    public static List<String> regions() {
+        return REGIONS;
+    }
+
+    /**
+     * Resolve the region of a key: the longest key constant it starts with.
+     */
+    public static String regionOf(String key) {
+        for (String region : REGIONS) {
+            if (key.startsWith(region)) {
+                return region;
+            }
+        }
+        return OTHER_REGION;
+    }
+
+    /**
+     * Key pattern covering a region: prefix regions match all their keys, plain keys match themselves.
+     */
+    public static String regionPattern(String region) {
+        return region.endsWith(":") ? region + "*" : region;
+    }
+
+    /**
+     * Matcher for a key pattern where {@code *} matches any characters and everything else is literal.
+     */
+    public static Predicate<String> patternMatcher(String pattern) {
+        String regex = Arrays.stream(pattern.split("\\*", -1))
+                .map(Pattern::quote)
+                .collect(Collectors.joining(".*"));
+        return Pattern.compile(regex).asMatchPredicate();
+    }
+
+    private static List<String> collectRegions() {
+        List<String> regions = new ArrayList<>();
+        for (Field field : CacheKeys.class.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isPublic(modifiers) && Modifier.isStatic(modifiers)
+                    && field.getType() == String.class && !field.getName().equals("OTHER_REGION")) {
+                try {
+                    regions.add((String) field.get(null));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        regions.sort(Comparator.comparingInt(String::length).reversed());
+        return List.copyOf(regions);
+    }
 }
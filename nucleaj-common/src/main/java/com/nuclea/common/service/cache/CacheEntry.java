@@ -0,0 +1,30 @@
+package com.nuclea.common.service.cache;
+
+import java.time.Duration;
+
+/**
+ * Cached value together with the time-to-live requested for it.
+ * Used by the in-process cache managers so each key can expire on its own schedule.
+ */
+record CacheEntry(Object value, long expirationNanos) {
+
+    static final Duration DEFAULT_EXPIRATION = Duration.ofHours(1);
+
+    /**
+     * Create an entry with the given expiration, falling back to the default when none is given.
+     */
+    static CacheEntry of(Object value, Duration expiration) {
+        Duration ttl = (expiration == null || expiration.isNegative() || expiration.isZero())
+                ? DEFAULT_EXPIRATION
+                : expiration;
+        return new CacheEntry(value, saturatedNanos(ttl));
+    }
+
+    private static long saturatedNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
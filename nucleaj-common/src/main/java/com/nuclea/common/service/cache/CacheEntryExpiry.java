@@ -0,0 +1,25 @@
+package com.nuclea.common.service.cache;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Caffeine expiry policy that honors the TTL stored in each {@link CacheEntry}.
+ * Reads do not extend the lifetime of an entry; writes restart it.
+ */
+class CacheEntryExpiry implements Expiry<String, CacheEntry> {
+
+    @Override
+    public long expireAfterCreate(String key, CacheEntry entry, long currentTime) {
+        return entry.expirationNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, CacheEntry entry, long currentTime, long currentDuration) {
+        return entry.expirationNanos();
+    }
+
+    @Override
+    public long expireAfterRead(String key, CacheEntry entry, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
@@ -0,0 +1,169 @@
+package com.nuclea.common.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.nuclea.common.constants.CacheKeys;
+import com.nuclea.common.service.marker.ISingletonService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Per-region cache statistics shared by the cache managers.
+ * Regions are the {@link CacheKeys} prefixes; counters are bound to Micrometer when a registry is available:
+ * {@code nuclea.cache.gets{region,result}}, {@code nuclea.cache.loads{region}} and {@code nuclea.cache.evictions{region}}.
+ */
+@Component
+public class CacheMetrics implements ISingletonService {
+
+    private final MeterRegistry registry;
+    private final Map<String, RegionStats> regions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CacheMetrics(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this(meterRegistryProvider.getIfAvailable());
+    }
+
+    CacheMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void recordHit(String key) {
+        stats(key).hits.increment();
+    }
+
+    public void recordMiss(String key) {
+        stats(key).misses.increment();
+    }
+
+    public void recordEviction(String key) {
+        stats(key).evictions.increment();
+    }
+
+    /**
+     * Run a loader and record its duration against the region of the key.
+     */
+    public <T> T timeLoad(String key, Supplier<T> loader) {
+        long start = System.nanoTime();
+        try {
+            return loader.get();
+        } finally {
+            RegionStats stats = stats(key);
+            stats.loads.increment();
+            stats.loadNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Run a batch loader and record one load with its duration against each region among the keys.
+     */
+    public <T> T timeLoadAll(Collection<String> keys, Supplier<T> loader) {
+        long start = System.nanoTime();
+        try {
+            return loader.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            keys.stream()
+                    .map(CacheKeys::regionOf)
+                    .distinct()
+                    .forEach(region -> {
+                        RegionStats stats = regions.computeIfAbsent(region, this::register);
+                        stats.loads.increment();
+                        stats.loadNanos.add(elapsed);
+                    });
+        }
+    }
+
+    /**
+     * Statistics of a region, or null when nothing was recorded for it yet.
+     */
+    public RegionStats region(String region) {
+        return regions.get(region);
+    }
+
+    /**
+     * Bind the built-in statistics of a Caffeine cache.
+     */
+    public void monitor(Cache<?, ?> cache, String cacheName) {
+        if (registry != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, cacheName);
+        }
+    }
+
+    private RegionStats stats(String key) {
+        return regions.computeIfAbsent(CacheKeys.regionOf(key), this::register);
+    }
+
+    private RegionStats register(String region) {
+        RegionStats stats = new RegionStats();
+        if (registry == null) {
+            return stats;
+        }
+
+        FunctionCounter.builder("nuclea.cache.gets", stats.hits, LongAdder::sum)
+                .tags("region", region, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("nuclea.cache.gets", stats.misses, LongAdder::sum)
+                .tags("region", region, "result", "miss")
+                .register(registry);
+        FunctionTimer.builder("nuclea.cache.loads", stats,
+                        s -> s.loads.sum(), s -> s.loadNanos.sum(), TimeUnit.NANOSECONDS)
+                .tag("region", region)
+                .description("Time spent loading values on cache misses")
+                .register(registry);
+        FunctionCounter.builder("nuclea.cache.evictions", stats.evictions, LongAdder::sum)
+                .tag("region", region)
+                .description("Entries evicted for size or expiry")
+                .register(registry);
+        return stats;
+    }
+
+    /**
+     * Counters of a single cache region.
+     */
+    public static final class RegionStats {
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder loads = new LongAdder();
+        private final LongAdder loadNanos = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        public long hits() {
+            return hits.sum();
+        }
+
+        public long misses() {
+            return misses.sum();
+        }
+
+        public long loads() {
+            return loads.sum();
+        }
+
+        public long evictions() {
+            return evictions.sum();
+        }
+
+        public double hitRatio() {
+            long hitCount = hits.sum();
+            long total = hitCount + misses.sum();
+            return total == 0 ? 0.0 : (double) hitCount / total;
+        }
+
+        public double averageLoadMillis() {
+            long loadCount = loads.sum();
+            return loadCount == 0 ? 0.0 : loadNanos.sum() / 1_000_000.0 / loadCount;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.nuclea.common.service.cache;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -33,6 +36,23 @@ public interface ICacheManager {
      */
     <T> T getOrSet(String key, Class<T> type, Duration expiration, Supplier<T> supplier);
 
+    /**
+     * Get many values from cache in one call.
+     * Keys that are not cached are absent from the returned map.
+     */
+    <T> Map<String, T> getAll(Collection<String> keys, Class<T> type);
+
+    /**
+     * Set many values in cache with expiration in one call.
+     */
+    <T> void setAll(Map<String, T> values, Duration expiration);
+
+    /**
+     * Bulk get or set - get cached values and load all missing keys with a single loader call.
+     */
+    <T> Map<String, T> getOrSetAll(Collection<String> keys, Class<T> type, Duration expiration,
+                                   Function<Collection<String>, Map<String, T>> loader);
+
     /**
      * Remove from cache.
      */
@@ -43,6 +63,11 @@ public interface ICacheManager {
      */
     void removePattern(String pattern);
 
+    /**
+     * Count keys matching pattern.
+     */
+    long count(String pattern);
+
     /**
      * Check if key exists.
      */
@@ -0,0 +1,161 @@
+package com.nuclea.common.service.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one load per key at a time; concurrent callers for the same key wait for that result.
+ * <p>
+ * The loader runs outside any map or cache lock (unlike {@code Cache.get(key, loader)}, which loads inside
+ * a {@code ConcurrentHashMap} bin lock), so a blocking loader does not pin virtual threads. A key that is
+ * invalidated while its load runs is not stored afterwards: callers invalidate here before touching the
+ * cache, and the loaded value is stored under the same lock that checks for invalidation.
+ */
+final class LoadCoalescer<V> {
+
+    /**
+     * @param value  loaded value
+     * @param loaded whether this caller ran the loader (as opposed to waiting for another caller)
+     */
+    record Result<V>(V value, boolean loaded) {
+    }
+
+    private static final class Load<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        // Only read and written inside compute calls on the key, which hold its bin lock
+        private boolean invalidated;
+    }
+
+    private final ConcurrentMap<String, Load<V>> inFlightLoads = new ConcurrentHashMap<>();
+
+    /**
+     * Load the value and pass it to {@code store} unless it is null or the key was invalidated meanwhile.
+     */
+    Result<V> load(String key, Supplier<V> loader, Consumer<V> store) {
+        Load<V> load = new Load<>();
+        Load<V> inFlight = inFlightLoads.putIfAbsent(key, load);
+        if (inFlight != null) {
+            return new Result<>(await(inFlight.future), false);
+        }
+
+        try {
+            V value = loader.get();
+            finish(key, load, value, store);
+            return new Result<>(value, true);
+        } catch (Throwable e) {
+            // Whatever failed, the key must not stay claimed and waiters must not block forever
+            fail(key, load, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Load several keys with a single loader call. Keys another caller is already loading are awaited
+     * instead of being passed to the loader; each loaded value is stored unless its key was invalidated meanwhile.
+     *
+     * @return result per requested key, with a null value when the loader returned none
+     */
+    Map<String, Result<V>> loadAll(Collection<String> keys, Function<Set<String>, Map<String, V>> loader,
+                                   BiConsumer<String, V> store) {
+        Map<String, Load<V>> claimed = new LinkedHashMap<>();
+        Map<String, Load<V>> awaited = new LinkedHashMap<>();
+        for (String key : keys) {
+            if (claimed.containsKey(key) || awaited.containsKey(key)) {
+                continue;
+            }
+            Load<V> load = new Load<>();
+            Load<V> inFlight = inFlightLoads.putIfAbsent(key, load);
+            if (inFlight != null) {
+                awaited.put(key, inFlight);
+            } else {
+                claimed.put(key, load);
+            }
+        }
+
+        Map<String, Result<V>> results = new LinkedHashMap<>();
+        if (!claimed.isEmpty()) {
+            try {
+                Map<String, V> values = loader.apply(Collections.unmodifiableSet(claimed.keySet()));
+                claimed.forEach((key, load) -> {
+                    V value = values != null ? values.get(key) : null;
+                    finish(key, load, value, v -> store.accept(key, v));
+                    results.put(key, new Result<>(value, true));
+                });
+            } catch (Throwable e) {
+                claimed.forEach((key, load) -> fail(key, load, e));
+                throw e;
+            }
+        }
+        // Our own keys are finished first, so two batches waiting on each other cannot deadlock
+        awaited.forEach((key, inFlight) -> results.put(key, new Result<>(await(inFlight.future), false)));
+        return results;
+    }
+
+    /**
+     * Keep a load of the key that is running now from storing its result.
+     */
+    void invalidate(String key) {
+        inFlightLoads.computeIfPresent(key, (k, load) -> {
+            load.invalidated = true;
+            return load;
+        });
+    }
+
+    void invalidateIf(Predicate<String> keyFilter) {
+        inFlightLoads.keySet().stream()
+                .filter(keyFilter)
+                .forEach(this::invalidate);
+    }
+
+    void invalidateAll() {
+        inFlightLoads.keySet().forEach(this::invalidate);
+    }
+
+    private void finish(String key, Load<V> load, V value, Consumer<V> store) {
+        // The store is a plain in-memory put, so holding the bin lock for it is cheap
+        inFlightLoads.computeIfPresent(key, (k, current) -> {
+            if (current != load) {
+                return current;
+            }
+            if (value != null && !load.invalidated) {
+                store.accept(value);
+            }
+            return null;
+        });
+        load.future.complete(value);
+    }
+
+    /**
+     * Release the key and fail its waiters; a no-op for a load that already finished.
+     */
+    private void fail(String key, Load<V> load, Throwable e) {
+        inFlightLoads.remove(key, load);
+        load.future.completeExceptionally(e);
+    }
+
+    private static <V> V await(CompletableFuture<V> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
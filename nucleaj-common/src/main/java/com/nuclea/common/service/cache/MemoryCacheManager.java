@@ -3,45 +3,86 @@ package com.nuclea.common.service.cache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.nuclea.common.constants.CacheKeys;
 import com.nuclea.common.service.marker.ISingletonService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 /**
  * In-memory cache manager using Caffeine.
  * Used as default when Redis is not configured.
+ * Each entry carries its own TTL; entries stored without one expire after one hour.
+ * <p>
+ * Values are kept as the original instances and returned as-is when they match the requested type.
+ * Set {@code app.cache.memory.defensive-copy=true} to store and hand out copies instead, which protects
+ * cached mutable objects (e.g. JPA entities) from being modified by callers.
  */
 @Service
 @ConditionalOnProperty(name = "spring.cache.type", havingValue = "caffeine", matchIfMissing = true)
 @Slf4j
 public class MemoryCacheManager implements ICacheManager, ISingletonService {
 
-    private final Cache<String, Object> cache;
+    private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class,
+            Long.class, Float.class, Double.class, BigDecimal.class, BigInteger.class, UUID.class,
+            Instant.class, LocalDate.class, LocalDateTime.class, Duration.class
+    );
+
+    private final Cache<String, CacheEntry> cache;
     private final ObjectMapper objectMapper;
+    private final CacheMetrics cacheMetrics;
+    private final boolean defensiveCopy;
+    private final LoadCoalescer<CacheEntry> loads = new LoadCoalescer<>();
 
-    public MemoryCacheManager(ObjectMapper objectMapper) {
+    public MemoryCacheManager(
+            ObjectMapper objectMapper,
+            CacheMetrics cacheMetrics,
+            @Value("${app.cache.memory.defensive-copy:false}") boolean defensiveCopy
+    ) {
         this.objectMapper = objectMapper;
+        this.cacheMetrics = cacheMetrics;
+        this.defensiveCopy = defensiveCopy;
         this.cache = Caffeine.newBuilder()
                 .maximumSize(10_000)
-                .expireAfterWrite(1, TimeUnit.HOURS)
+                .expireAfter(new CacheEntryExpiry())
+                .evictionListener((String key, CacheEntry entry, RemovalCause cause) -> cacheMetrics.recordEviction(key))
                 .recordStats()
                 .build();
-        log.info("MemoryCacheManager initialized with Caffeine");
+        cacheMetrics.monitor(cache, "memory");
+        log.info("MemoryCacheManager initialized with Caffeine (defensive copy: {})", defensiveCopy);
     }
 
     @Override
     public <T> T get(String key, Class<T> type) {
         try {
-            Object value = cache.getIfPresent(key);
-            if (value == null) {
+            CacheEntry entry = cache.getIfPresent(key);
+            if (entry == null) {
+                cacheMetrics.recordMiss(key);
                 return null;
             }
-            return objectMapper.convertValue(value, type);
+            cacheMetrics.recordHit(key);
+            return unwrap(entry, type);
         } catch (Exception e) {
             log.error("Error getting from cache: {}", e.getMessage());
             return null;
@@ -50,58 +91,162 @@ public class MemoryCacheManager implements ICacheManager, ISingletonService {
 
     @Override
     public <T> void set(String key, T value) {
-        cache.put(key, value);
+        set(key, value, CacheEntry.DEFAULT_EXPIRATION);
     }
 
     @Override
     public <T> void set(String key, T value, Duration expiration) {
-        // Caffeine doesn't support per-entry TTL, so we use the global one
-        // For production, consider using Redis for per-key expiration
-        cache.put(key, value);
-        log.debug("Cached key: {} (global expiration applied)", key);
+        loads.invalidate(key);
+        cache.put(key, CacheEntry.of(copyIfNeeded(value), expiration));
+        log.debug("Cached key: {} (expires in {})", key, expiration);
     }
 
     @Override
     public <T> T getOrSet(String key, Class<T> type, Supplier<T> supplier) {
-        T cachedValue = get(key, type);
-        if (cachedValue != null) {
-            return cachedValue;
+        return getOrSet(key, type, CacheEntry.DEFAULT_EXPIRATION, supplier);
+    }
+
+    /**
+     * Concurrent misses on the same key are coalesced: the supplier runs once
+     * while the other callers wait for its result.
+     */
+    @Override
+    public <T> T getOrSet(String key, Class<T> type, Duration expiration, Supplier<T> supplier) {
+        CacheEntry entry = cache.getIfPresent(key);
+        boolean loaded = false;
+        if (entry == null) {
+            LoadCoalescer.Result<CacheEntry> result = loads.load(key, () -> {
+                // A load may have completed between the lookup and getting here
+                CacheEntry current = cache.getIfPresent(key);
+                if (current != null) {
+                    return current;
+                }
+                T value = cacheMetrics.timeLoad(key, supplier);
+                return value != null ? CacheEntry.of(copyIfNeeded(value), expiration) : null;
+            }, created -> cache.put(key, created));
+            entry = result.value();
+            loaded = result.loaded();
+        }
+        if (loaded) {
+            cacheMetrics.recordMiss(key);
+        } else {
+            cacheMetrics.recordHit(key);
+        }
+        if (entry == null) {
+            return null;
         }
 
-        T value = supplier.get();
-        if (value != null) {
-            set(key, value);
+        try {
+            return unwrap(entry, type);
+        } catch (Exception e) {
+            log.error("Error converting cached value for key {}: {}", key, e.getMessage());
+            T value = supplier.get();
+            if (value != null) {
+                set(key, value, expiration);
+            }
+            return value;
         }
-        return value;
     }
 
     @Override
-    public <T> T getOrSet(String key, Class<T> type, Duration expiration, Supplier<T> supplier) {
-        T cachedValue = get(key, type);
-        if (cachedValue != null) {
-            return cachedValue;
+    public <T> Map<String, T> getAll(Collection<String> keys, Class<T> type) {
+        Map<String, T> result = new LinkedHashMap<>();
+        try {
+            Map<String, CacheEntry> entries = cache.getAllPresent(keys);
+            recordGets(keys, entries.keySet());
+            entries.forEach((key, entry) -> putIfNotNull(result, key, unwrap(entry, type)));
+        } catch (Exception e) {
+            log.error("Error getting multiple keys from cache: {}", e.getMessage());
         }
+        return result;
+    }
 
-        T value = supplier.get();
-        if (value != null) {
-            set(key, value, expiration);
+    @Override
+    public <T> void setAll(Map<String, T> values, Duration expiration) {
+        Map<String, CacheEntry> entries = new HashMap<>();
+        values.forEach((key, value) -> {
+            if (value != null) {
+                entries.put(key, CacheEntry.of(copyIfNeeded(value), expiration));
+            }
+        });
+        entries.keySet().forEach(loads::invalidate);
+        cache.putAll(entries);
+        log.debug("Cached {} keys (expires in {})", entries.size(), expiration);
+    }
+
+    /**
+     * Missing keys are loaded with one loader call. Keys already being loaded by another caller are
+     * awaited, and a key removed or set while the loader runs is not stored.
+     */
+    @Override
+    public <T> Map<String, T> getOrSetAll(Collection<String> keys, Class<T> type, Duration expiration,
+                                          Function<Collection<String>, Map<String, T>> loader) {
+        Map<String, CacheEntry> entries = new HashMap<>(cache.getAllPresent(keys));
+        List<String> missingKeys = keys.stream()
+                .filter(key -> !entries.containsKey(key))
+                .distinct()
+                .toList();
+
+        Set<String> missed = new HashSet<>();
+        if (!missingKeys.isEmpty()) {
+            Map<String, LoadCoalescer.Result<CacheEntry>> loaded = loads.loadAll(missingKeys, requested -> {
+                Map<String, T> values = cacheMetrics.timeLoadAll(requested, () -> loader.apply(requested));
+                Map<String, CacheEntry> loadedEntries = new HashMap<>();
+                if (values != null) {
+                    values.forEach((key, value) -> {
+                        if (value != null) {
+                            loadedEntries.put(key, CacheEntry.of(copyIfNeeded(value), expiration));
+                        }
+                    });
+                }
+                return loadedEntries;
+            }, cache::put);
+            loaded.forEach((key, result) -> {
+                if (result.loaded()) {
+                    missed.add(key);
+                }
+                if (result.value() != null) {
+                    entries.put(key, result.value());
+                }
+            });
+        }
+
+        Set<String> found = new HashSet<>(keys);
+        found.removeAll(missed);
+        recordGets(keys, found);
+
+        Map<String, T> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            CacheEntry entry = entries.get(key);
+            if (entry != null) {
+                putIfNotNull(result, key, unwrap(entry, type));
+            }
         }
-        return value;
+        return result;
     }
 
     @Override
     public void remove(String key) {
+        loads.invalidate(key);
         cache.invalidate(key);
     }
 
     @Override
     public void removePattern(String pattern) {
-        String regex = pattern.replace("*", ".*");
+        Predicate<String> matcher = CacheKeys.patternMatcher(pattern);
+        loads.invalidateIf(matcher);
         cache.asMap().keySet().stream()
-                .filter(key -> key.matches(regex))
+                .filter(matcher)
                 .forEach(cache::invalidate);
     }
 
+    @Override
+    public long count(String pattern) {
+        return cache.asMap().keySet().stream()
+                .filter(CacheKeys.patternMatcher(pattern))
+                .count();
+    }
+
     @Override
     public boolean exists(String key) {
         return cache.getIfPresent(key) != null;
@@ -109,7 +254,54 @@ public class MemoryCacheManager implements ICacheManager, ISingletonService {
 
     @Override
     public void clear() {
+        loads.invalidateAll();
         cache.invalidateAll();
         log.info("Cache cleared");
     }
+
+    /**
+     * Return the cached value as the requested type.
+     * Converts through ObjectMapper only when the stored instance is not already of that type.
+     */
+    private <T> T unwrap(CacheEntry entry, Class<T> type) {
+        Object value = entry.value();
+        if (value == null) {
+            return null;
+        }
+        if (type.isInstance(value)) {
+            return type.cast(copyIfNeeded(value));
+        }
+        return objectMapper.convertValue(value, type);
+    }
+
+    /**
+     * Copy mutable values when defensive copy mode is enabled.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T copyIfNeeded(T value) {
+        if (!defensiveCopy || value == null || isImmutable(value)) {
+            return value;
+        }
+        return (T) objectMapper.convertValue(value, value.getClass());
+    }
+
+    private void recordGets(Collection<String> keys, Set<String> found) {
+        for (String key : keys) {
+            if (found.contains(key)) {
+                cacheMetrics.recordHit(key);
+            } else {
+                cacheMetrics.recordMiss(key);
+            }
+        }
+    }
+
+    private static <T> void putIfNotNull(Map<String, T> map, String key, T value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value instanceof Enum<?> || IMMUTABLE_TYPES.contains(value.getClass());
+    }
 }
@@ -1,131 +1,693 @@
 package com.nuclea.common.service.cache;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nuclea.common.constants.CacheKeys;
+import com.nuclea.common.service.cache.codec.CacheValueSerializer;
 import com.nuclea.common.service.marker.ISingletonService;
-import lombok.RequiredArgsConstructor;
+import com.nuclea.common.service.resilience.ResilienceGuard;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
  * Redis-based cache manager.
  * Activated when Redis is configured.
+ * <p>
+ * {@code getOrSet} is stampede-protected: concurrent misses on one node share a single load,
+ * and across nodes only the holder of a short-lived {@code <key>:lock} key runs the supplier
+ * while the others poll for its result.
+ * <p>
+ * All keys are stored under {@code app.cache.key-prefix} so {@link #clear()} only touches this
+ * application's namespace. Pattern removal walks the keyspace with SCAN and UNLINKs in batches;
+ * for prefixes listed in {@code app.cache.redis.tagged-prefixes} a tag set of member keys is
+ * maintained so {@code removePattern("<prefix>*")} only touches those members.
+ * A member is removed from its tag set together with its key, and members whose key has expired are
+ * pruned when the prefix is counted. Tag only bounded regions (e.g. {@code app_settings:}), as pattern
+ * removal reads the whole set at once.
+ * <p>
+ * Values are stored as bytes encoded by {@link CacheValueSerializer} (codec per region, optional LZ4).
+ * <p>
+ * Every Redis call goes through the {@code redis} bulkhead and circuit breaker; while Redis is slow or
+ * down, reads are misses and writes are skipped immediately, so callers fall through to the database.
  */
 @Service
 @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
-@RequiredArgsConstructor
 @Slf4j
 public class RedisCacheManager implements ICacheManager, ISingletonService {
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    private static final String LOCK_SUFFIX = ":lock";
+    private static final Duration LOCK_TIMEOUT = Duration.ofSeconds(10);
+    private static final long LOCK_POLL_INTERVAL_MS = 50;
+    private static final int SCAN_BATCH_SIZE = 500;
+    private static final String TAG_SET_SEGMENT = "tags:";
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class
+    );
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final CacheValueSerializer valueSerializer;
     private final ObjectMapper objectMapper;
+    private final CacheMetrics cacheMetrics;
+    private final ResilienceGuard resilienceGuard;
+    private final LoadCoalescer<Object> loads = new LoadCoalescer<>();
+
+    /**
+     * Value read together with its remaining time-to-live; {@code ttl} is null when the key never expires.
+     */
+    record Entry<T>(T value, Duration ttl) {
+    }
+
+    @Value("${app.cache.key-prefix:nuclea:}")
+    private String keyPrefix;
+
+    @Value("${app.cache.redis.tagged-prefixes:}")
+    private Set<String> taggedPrefixes;
+
+    public RedisCacheManager(
+            @Qualifier("cacheRedisTemplate") RedisTemplate<String, byte[]> redisTemplate,
+            CacheValueSerializer valueSerializer,
+            ObjectMapper objectMapper,
+            CacheMetrics cacheMetrics,
+            ResilienceGuard resilienceGuard) {
+        this.redisTemplate = redisTemplate;
+        this.valueSerializer = valueSerializer;
+        this.objectMapper = objectMapper;
+        this.cacheMetrics = cacheMetrics;
+        this.resilienceGuard = resilienceGuard;
+    }
 
     @Override
     public <T> T get(String key, Class<T> type) {
-        try {
-            Object value = redisTemplate.opsForValue().get(key);
-            if (value == null) {
-                return null;
-            }
-            return objectMapper.convertValue(value, type);
-        } catch (Exception e) {
-            log.error("Error getting from Redis cache: {}", e.getMessage());
-            return null;
-        }
+        T value = fetch(key, type);
+        recordGet(key, value);
+        return value;
     }
 
     @Override
     public <T> void set(String key, T value) {
+        loads.invalidate(key);
         try {
-            redisTemplate.opsForValue().set(key, value);
+            store(key, value, null);
         } catch (Exception e) {
-            log.error("Error setting to Redis cache: {}", e.getMessage());
+            logFailure("Error setting to Redis cache", e);
         }
     }
 
     @Override
     public <T> void set(String key, T value, Duration expiration) {
+        loads.invalidate(key);
         try {
-            redisTemplate.opsForValue().set(key, value, expiration);
+            store(key, value, expiration);
         } catch (Exception e) {
-            log.error("Error setting to Redis cache with expiration: {}", e.getMessage());
+            logFailure("Error setting to Redis cache with expiration", e);
         }
     }
 
     @Override
     public <T> T getOrSet(String key, Class<T> type, Supplier<T> supplier) {
+        return getOrSet(key, type, null, supplier);
+    }
+
+    @Override
+    public <T> T getOrSet(String key, Class<T> type, Duration expiration, Supplier<T> supplier) {
         T cachedValue = get(key, type);
         if (cachedValue != null) {
             return cachedValue;
         }
+        return load(key, type, expiration, supplier);
+    }
 
-        T value = supplier.get();
-        if (value != null) {
-            set(key, value);
+    /**
+     * Load a value after a miss and store it.
+     * Used directly by {@link TieredCacheManager}, which has already looked the key up.
+     */
+    <T> T load(String key, Class<T> type, Duration expiration, Supplier<T> supplier) {
+        // Coalesce concurrent misses on this node into a single load; the value is written to Redis
+        // while the distributed lock is held, so there is nothing left to store afterwards
+        LoadCoalescer.Result<Object> result = loads.load(key, () -> loadWithLock(key, type, expiration, supplier), value -> { });
+        return convert(result.value(), type);
+    }
+
+    @Override
+    public <T> Map<String, T> getAll(Collection<String> keys, Class<T> type) {
+        Map<String, T> result = new LinkedHashMap<>();
+        if (keys.isEmpty()) {
+            return result;
         }
-        return value;
+
+        try {
+            List<String> keyList = new ArrayList<>(keys);
+            List<byte[]> values = guarded(() -> redisTemplate.opsForValue().multiGet(keyList.stream().map(this::namespaced).toList()));
+            if (values != null) {
+                for (int i = 0; i < keyList.size(); i++) {
+                    T value = decode(values.get(i), type);
+                    recordGet(keyList.get(i), value);
+                    if (value != null) {
+                        result.put(keyList.get(i), value);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logFailure("Error getting multiple keys from Redis cache", e);
+        }
+        return result;
+    }
+
+    /**
+     * Read values with their remaining TTL (GET and PTTL per key in one pipelined round-trip).
+     * Used by {@link TieredCacheManager} so a local copy never outlives the Redis entry.
+     */
+    <T> Map<String, Entry<T>> getAllWithTtl(Collection<String> keys, Class<T> type) {
+        Map<String, Entry<T>> result = new LinkedHashMap<>();
+        if (keys.isEmpty()) {
+            return result;
+        }
+
+        try {
+            List<String> keyList = new ArrayList<>(keys);
+            List<Object> replies = pipelined(ops -> keyList.forEach(key -> {
+                ops.opsForValue().get(namespaced(key));
+                ops.getExpire(namespaced(key), TimeUnit.MILLISECONDS);
+            }));
+            for (int i = 0; i < keyList.size(); i++) {
+                T value = decode((byte[]) replies.get(2 * i), type);
+                recordGet(keyList.get(i), value);
+                if (value != null) {
+                    result.put(keyList.get(i), new Entry<>(value, remainingTtl((Long) replies.get(2 * i + 1))));
+                }
+            }
+        } catch (Exception e) {
+            logFailure("Error getting multiple keys with TTL from Redis cache", e);
+        }
+        return result;
+    }
+
+    <T> Entry<T> getWithTtl(String key, Class<T> type) {
+        return getAllWithTtl(List.of(key), type).get(key);
     }
 
     @Override
-    public <T> T getOrSet(String key, Class<T> type, Duration expiration, Supplier<T> supplier) {
-        T cachedValue = get(key, type);
-        if (cachedValue != null) {
-            return cachedValue;
+    public <T> void setAll(Map<String, T> values, Duration expiration) {
+        if (values.isEmpty()) {
+            return;
         }
 
-        T value = supplier.get();
-        if (value != null) {
-            set(key, value, expiration);
+        values.keySet().forEach(loads::invalidate);
+        try {
+            pipelined(ops -> values.forEach((key, value) -> {
+                if (value != null) {
+                    writeEntry(ops, key, value, expiration);
+                }
+            }));
+        } catch (Exception e) {
+            logFailure("Error setting multiple keys to Redis cache", e);
         }
-        return value;
+    }
+
+    @Override
+    public <T> Map<String, T> getOrSetAll(Collection<String> keys, Class<T> type, Duration expiration,
+                                          Function<Collection<String>, Map<String, T>> loader) {
+        Map<String, T> result = getAll(keys, type);
+
+        Set<String> missingKeys = new HashSet<>(keys);
+        missingKeys.removeAll(result.keySet());
+        if (!missingKeys.isEmpty()) {
+            result.putAll(loadAll(missingKeys, type, expiration, loader));
+        }
+        return result;
+    }
+
+    /**
+     * Load missing keys with a single loader call and store the results.
+     * Keys this node is already loading are awaited; a key removed or set on this node while the loader
+     * runs is not written. Used directly by {@link TieredCacheManager}, which has already looked the keys up.
+     */
+    <T> Map<String, T> loadAll(Collection<String> missingKeys, Class<T> type, Duration expiration,
+                               Function<Collection<String>, Map<String, T>> loader) {
+        // Values still valid after the load are collected under the per-key lock and written in one pipeline
+        Map<String, Object> toStore = new HashMap<>();
+        Map<String, LoadCoalescer.Result<Object>> loaded = loads.loadAll(missingKeys, requested -> {
+            Map<String, T> values = cacheMetrics.timeLoadAll(requested, () -> loader.apply(requested));
+            return values != null ? new HashMap<>(values) : Map.of();
+        }, toStore::put);
+        setAll(toStore, expiration);
+
+        Map<String, T> result = new LinkedHashMap<>();
+        loaded.forEach((key, value) -> {
+            T converted = convert(value.value(), type);
+            if (converted != null) {
+                result.put(key, converted);
+            }
+        });
+        return result;
     }
 
     @Override
     public void remove(String key) {
+        loads.invalidate(key);
         try {
-            redisTemplate.delete(key);
+            String redisKey = namespaced(key);
+            String tagKey = tagKeyFor(key);
+            if (tagKey == null) {
+                guarded(() -> redisTemplate.unlink(redisKey));
+            } else {
+                pipelined(ops -> {
+                    ops.unlink(redisKey);
+                    ops.opsForSet().remove(tagKey, (Object) utf8(redisKey));
+                });
+            }
         } catch (Exception e) {
-            log.error("Error removing from Redis cache: {}", e.getMessage());
+            logFailure("Error removing from Redis cache", e);
         }
     }
 
     @Override
     public void removePattern(String pattern) {
+        loads.invalidateIf(CacheKeys.patternMatcher(pattern));
+        try {
+            // A trailing wildcard over a tagged prefix can be served from its tag set
+            boolean singleTrailingWildcard = !pattern.isEmpty() && pattern.indexOf('*') == pattern.length() - 1;
+            String prefix = singleTrailingWildcard ? pattern.substring(0, pattern.length() - 1) : null;
+            long removed = guarded(() -> prefix != null && taggedPrefixes != null && taggedPrefixes.contains(prefix)
+                    ? unlinkTaggedMembers(keyPrefix + TAG_SET_SEGMENT + prefix)
+                    : scanAndUnlink(namespaced(pattern)));
+            log.debug("Removed {} Redis cache keys matching {}", removed, pattern);
+        } catch (Exception e) {
+            logFailure("Error removing pattern from Redis cache", e);
+        }
+    }
+
+    @Override
+    public long count(String pattern) {
         try {
-            Set<String> keys = redisTemplate.keys(pattern);
-            if (keys != null && !keys.isEmpty()) {
-                redisTemplate.delete(keys);
+            boolean singleTrailingWildcard = !pattern.isEmpty() && pattern.indexOf('*') == pattern.length() - 1;
+            String prefix = singleTrailingWildcard ? pattern.substring(0, pattern.length() - 1) : null;
+            if (prefix != null && taggedPrefixes != null && taggedPrefixes.contains(prefix)) {
+                return guarded(() -> countTaggedMembers(keyPrefix + TAG_SET_SEGMENT + prefix));
             }
+            return guarded(() -> scanCount(namespaced(pattern)));
         } catch (Exception e) {
-            log.error("Error removing pattern from Redis cache: {}", e.getMessage());
+            logFailure("Error counting pattern in Redis cache", e);
+            return 0;
         }
     }
 
     @Override
     public boolean exists(String key) {
         try {
-            return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+            return Boolean.TRUE.equals(guarded(() -> redisTemplate.hasKey(namespaced(key))));
         } catch (Exception e) {
-            log.error("Error checking existence in Redis cache: {}", e.getMessage());
+            logFailure("Error checking existence in Redis cache", e);
             return false;
         }
     }
 
     @Override
     public void clear() {
+        loads.invalidateAll();
+        try {
+            long removed = guarded(() -> scanAndUnlink(keyPrefix + "*"));
+            log.info("Redis cache cleared ({} keys under {})", removed, keyPrefix);
+        } catch (Exception e) {
+            logFailure("Error clearing Redis cache", e);
+        }
+    }
+
+    /**
+     * Load value while holding the distributed lock for the key, or wait for the node that holds it.
+     */
+    private <T> T loadWithLock(String key, Class<T> type, Duration expiration, Supplier<T> supplier) {
+        String lockKey = namespaced(key + LOCK_SUFFIX);
+        String lockToken = UUID.randomUUID().toString();
+
+        if (tryAcquireLock(lockKey, lockToken)) {
+            try {
+                // Another node may have finished loading between our miss and acquiring the lock
+                T cachedValue = fetch(key, type);
+                if (cachedValue != null) {
+                    return cachedValue;
+                }
+                return loadAndStore(key, expiration, supplier);
+            } finally {
+                releaseLock(lockKey, lockToken);
+            }
+        }
+
+        T value = awaitRemoteLoad(key, lockKey, type);
+        if (value != null) {
+            return value;
+        }
+
+        log.debug("No cached value published for key {} by lock holder, loading locally", key);
+        return loadAndStore(key, expiration, supplier);
+    }
+
+    private <T> T loadAndStore(String key, Duration expiration, Supplier<T> supplier) {
+        T value = cacheMetrics.timeLoad(key, supplier);
+        if (value != null) {
+            try {
+                store(key, value, expiration);
+            } catch (Exception e) {
+                logFailure("Error setting to Redis cache", e);
+            }
+        }
+        return value;
+    }
+
+    private boolean tryAcquireLock(String lockKey, String lockToken) {
+        try {
+            return Boolean.TRUE.equals(guarded(() -> redisTemplate.opsForValue().setIfAbsent(lockKey, utf8(lockToken), LOCK_TIMEOUT)));
+        } catch (Exception e) {
+            // Without Redis there is nobody to coordinate with, so load locally
+            logFailure("Error acquiring Redis cache lock " + lockKey, e);
+            return true;
+        }
+    }
+
+    private void releaseLock(String lockKey, String lockToken) {
         try {
-            Set<String> keys = redisTemplate.keys("*");
-            if (keys != null && !keys.isEmpty()) {
-                redisTemplate.delete(keys);
+            guarded(() -> redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), (Object) utf8(lockToken)));
+        } catch (Exception e) {
+            logFailure("Error releasing Redis cache lock " + lockKey, e);
+        }
+    }
+
+    /**
+     * Poll for the value loaded by the lock holder.
+     * Returns null when the lock is released without a value or the wait times out.
+     */
+    private <T> T awaitRemoteLoad(String key, String lockKey, Class<T> type) {
+        long deadline = System.nanoTime() + LOCK_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(LOCK_POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+
+            T value = fetch(key, type);
+            if (value != null) {
+                return value;
+            }
+            if (!lockHeld(lockKey)) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Write value and, for tagged prefixes, register the key in its tag set within one pipeline.
+     */
+    private void store(String key, Object value, Duration expiration) {
+        if (tagKeyFor(key) == null) {
+            byte[] data = encode(key, value);
+            guarded(() -> {
+                writeEncoded(redisTemplate, key, data, expiration);
+                return null;
+            });
+        } else {
+            pipelined(ops -> writeEntry(ops, key, value, expiration));
+        }
+    }
+
+    private void writeEntry(RedisOperations<String, byte[]> ops, String key, Object value, Duration expiration) {
+        writeEncoded(ops, key, encode(key, value), expiration);
+    }
+
+    private void writeEncoded(RedisOperations<String, byte[]> ops, String key, byte[] data, Duration expiration) {
+        String redisKey = namespaced(key);
+        if (expiration != null) {
+            ops.opsForValue().set(redisKey, data, expiration);
+        } else {
+            ops.opsForValue().set(redisKey, data);
+        }
+
+        String tagKey = tagKeyFor(key);
+        if (tagKey != null) {
+            ops.opsForSet().add(tagKey, utf8(redisKey));
+        }
+    }
+
+    /**
+     * Run commands in a single pipelined round-trip and return their replies in order.
+     */
+    private List<Object> pipelined(Consumer<RedisOperations<String, byte[]>> commands) {
+        return guarded(() -> executePipelined(commands));
+    }
+
+    /**
+     * Pipeline without going through the guard, for use inside an already guarded call.
+     */
+    private List<Object> executePipelined(Consumer<RedisOperations<String, byte[]>> commands) {
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                commands.accept((RedisOperations<String, byte[]>) operations);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Resolve the tag set key for a cache key, or null when its prefix is not tagged.
+     */
+    private String tagKeyFor(String key) {
+        if (taggedPrefixes == null) {
+            return null;
+        }
+        for (String prefix : taggedPrefixes) {
+            if (!prefix.isBlank() && key.startsWith(prefix)) {
+                return keyPrefix + TAG_SET_SEGMENT + prefix;
+            }
+        }
+        return null;
+    }
+
+    private long unlinkTaggedMembers(String tagKey) {
+        Set<byte[]> members = redisTemplate.opsForSet().members(tagKey);
+        List<String> keys = new ArrayList<>();
+        if (members != null) {
+            members.forEach(member -> keys.add(new String(member, StandardCharsets.UTF_8)));
+        }
+        keys.add(tagKey);
+
+        long removed = 0;
+        for (int from = 0; from < keys.size(); from += SCAN_BATCH_SIZE) {
+            removed += unlink(keys.subList(from, Math.min(from + SCAN_BATCH_SIZE, keys.size())));
+        }
+        return removed;
+    }
+
+    /**
+     * Count the live members of a tag set with SSCAN, removing members whose key has expired.
+     */
+    private long countTaggedMembers(String tagKey) {
+        ScanOptions options = ScanOptions.scanOptions()
+                .count(SCAN_BATCH_SIZE)
+                .build();
+
+        long count = 0;
+        List<byte[]> batch = new ArrayList<>(SCAN_BATCH_SIZE);
+        try (Cursor<byte[]> cursor = redisTemplate.opsForSet().scan(tagKey, options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() >= SCAN_BATCH_SIZE) {
+                    count += pruneExpiredMembers(tagKey, batch);
+                    batch.clear();
+                }
+            }
+        }
+        return count + pruneExpiredMembers(tagKey, batch);
+    }
+
+    /**
+     * Check the members' keys with pipelined EXISTS and SREM those that are gone; returns the live count.
+     */
+    private long pruneExpiredMembers(String tagKey, List<byte[]> members) {
+        if (members.isEmpty()) {
+            return 0;
+        }
+        List<Object> exists = executePipelined(ops -> members.forEach(
+                member -> ops.hasKey(new String(member, StandardCharsets.UTF_8))));
+
+        List<Object> expired = new ArrayList<>();
+        for (int i = 0; i < members.size(); i++) {
+            if (!Boolean.TRUE.equals(exists.get(i))) {
+                expired.add(members.get(i));
+            }
+        }
+        if (!expired.isEmpty()) {
+            redisTemplate.opsForSet().remove(tagKey, expired.toArray());
+        }
+        return members.size() - expired.size();
+    }
+
+    /**
+     * Incrementally iterate matching keys with SCAN and UNLINK them in batches.
+     */
+    private long scanAndUnlink(String matchPattern) {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(matchPattern)
+                .count(SCAN_BATCH_SIZE)
+                .build();
+
+        long removed = 0;
+        List<String> batch = new ArrayList<>(SCAN_BATCH_SIZE);
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() >= SCAN_BATCH_SIZE) {
+                    removed += unlink(batch);
+                    batch.clear();
+                }
+            }
+        }
+        return removed + unlink(batch);
+    }
+
+    private long scanCount(String matchPattern) {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(matchPattern)
+                .count(SCAN_BATCH_SIZE)
+                .build();
+
+        long count = 0;
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                cursor.next();
+                count++;
             }
-            log.info("Redis cache cleared");
+        }
+        return count;
+    }
+
+    private long unlink(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        Long removed = redisTemplate.unlink(keys);
+        return removed != null ? removed : 0;
+    }
+
+    /**
+     * Convert a PTTL reply: null for a key without expiry, zero when it expired after the GET.
+     */
+    private static Duration remainingTtl(Long pttl) {
+        if (pttl == null || pttl == -1) {
+            return null;
+        }
+        return Duration.ofMillis(Math.max(0, pttl));
+    }
+
+    private String namespaced(String key) {
+        return keyPrefix + key;
+    }
+
+    /**
+     * Read a value without recording metrics (internal re-checks and polling).
+     */
+    private <T> T fetch(String key, Class<T> type) {
+        try {
+            return decode(guarded(() -> redisTemplate.opsForValue().get(namespaced(key))), type);
+        } catch (Exception e) {
+            logFailure("Error getting from Redis cache", e);
+            return null;
+        }
+    }
+
+    private boolean lockHeld(String lockKey) {
+        try {
+            return Boolean.TRUE.equals(guarded(() -> redisTemplate.hasKey(lockKey)));
         } catch (Exception e) {
-            log.error("Error clearing Redis cache: {}", e.getMessage());
+            logFailure("Error checking Redis cache lock " + lockKey, e);
+            return false;
+        }
+    }
+
+    private <T> T guarded(ResilienceGuard.GuardedCall<T, RuntimeException> operation) {
+        return resilienceGuard.execute(ResilienceGuard.REDIS, operation);
+    }
+
+    /**
+     * Calls refused by the open breaker or full bulkhead are expected while Redis is degraded; keep them out of the error log.
+     */
+    private static void logFailure(String message, Exception e) {
+        if (ResilienceGuard.isRejected(e)) {
+            log.debug("{}: {}", message, e.getMessage());
+        } else {
+            log.error("{}: {}", message, e.getMessage());
+        }
+    }
+
+    private void recordGet(String key, Object value) {
+        if (value != null) {
+            cacheMetrics.recordHit(key);
+        } else {
+            cacheMetrics.recordMiss(key);
+        }
+    }
+
+    private byte[] encode(String key, Object value) {
+        try {
+            return valueSerializer.serialize(key, value);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode cache value for key " + key, e);
+        }
+    }
+
+    /**
+     * Decode a stored value; unreadable entries (e.g. written by an older format) count as a miss.
+     */
+    private <T> T decode(byte[] data, Class<T> type) {
+        try {
+            return valueSerializer.deserialize(data, type);
+        } catch (IOException e) {
+            log.warn("Discarding unreadable Redis cache value: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private <T> T convert(Object value, Class<T> type) {
+        if (value == null) {
+            return null;
+        }
+        if (type.isInstance(value)) {
+            return type.cast(value);
         }
+        return objectMapper.convertValue(value, type);
     }
 }
@@ -0,0 +1,455 @@
+package com.nuclea.common.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nuclea.common.constants.CacheKeys;
+import com.nuclea.common.service.marker.ISingletonService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache manager: a bounded Caffeine cache per node (L1) in front of Redis (L2).
+ * Activated with {@code spring.cache.type=redis} and {@code app.cache.near-cache.enabled=true}.
+ * <p>
+ * Writes and removals are published on a Redis channel so every API and scheduler node drops
+ * its local copy. Local entries never outlive {@code app.cache.near-cache.max-expiration} nor the
+ * remaining TTL of the Redis entry they were copied from, which bounds staleness if an invalidation
+ * message is missed. Copies from Redis are stored through the same guard as loads, so an invalidation
+ * arriving while Redis is being read is not undone by the copy.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+@ConditionalOnExpression("${app.cache.near-cache.enabled:false}")
+@Slf4j
+public class TieredCacheManager implements ICacheManager, MessageListener, ISingletonService {
+
+    private static final String OPERATION_KEY = "key";
+    private static final String OPERATION_KEYS = "keys";
+    private static final String KEY_SEPARATOR = "\n";
+    private static final String OPERATION_PATTERN = "pattern";
+    private static final String OPERATION_CLEAR = "clear";
+    private static final String MESSAGE_SEPARATOR = "|";
+
+    private final RedisCacheManager redisCacheManager;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final CacheMetrics cacheMetrics;
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final Cache<String, CacheEntry> localCache;
+    private final LoadCoalescer<CacheEntry> localLoads = new LoadCoalescer<>();
+    private final Duration maxLocalExpiration;
+    private final String invalidationChannel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+
+    public TieredCacheManager(
+            RedisCacheManager redisCacheManager,
+            StringRedisTemplate stringRedisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            ObjectMapper objectMapper,
+            CacheMetrics cacheMetrics,
+            ObjectProvider<MeterRegistry> meterRegistryProvider,
+            @Value("${app.cache.near-cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.cache.near-cache.max-expiration:5m}") Duration maxLocalExpiration,
+            @Value("${app.cache.near-cache.invalidation-channel:nuclea:cache:invalidation}") String invalidationChannel
+    ) {
+        this.redisCacheManager = redisCacheManager;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.cacheMetrics = cacheMetrics;
+        this.meterRegistryProvider = meterRegistryProvider;
+        this.maxLocalExpiration = maxLocalExpiration;
+        this.invalidationChannel = invalidationChannel;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new CacheEntryExpiry())
+                .recordStats()
+                .build();
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(invalidationChannel));
+        bindMetrics();
+        log.info("TieredCacheManager initialized (node: {}, channel: {})", nodeId, invalidationChannel);
+    }
+
+    @Override
+    public <T> T get(String key, Class<T> type) {
+        CacheEntry entry = localCache.getIfPresent(key);
+        if (entry != null) {
+            cacheMetrics.recordHit(key);
+            return convert(entry.value(), type);
+        }
+
+        LoadCoalescer.Result<CacheEntry> result = localLoads.load(key, () -> {
+            RedisCacheManager.Entry<T> remote = redisCacheManager.getWithTtl(key, type);
+            if (remote == null) {
+                remoteMisses.increment();
+                return null;
+            }
+            remoteHits.increment();
+            return localEntry(remote);
+        }, created -> storeLocal(key, created));
+        if (!result.loaded()) {
+            recordGet(key, result.value());
+        }
+        return result.value() != null ? convert(result.value().value(), type) : null;
+    }
+
+    @Override
+    public <T> void set(String key, T value) {
+        redisCacheManager.set(key, value);
+        localLoads.invalidate(key);
+        localCache.put(key, localEntry(value, null));
+        publish(OPERATION_KEY, key);
+    }
+
+    @Override
+    public <T> void set(String key, T value, Duration expiration) {
+        redisCacheManager.set(key, value, expiration);
+        localLoads.invalidate(key);
+        localCache.put(key, localEntry(value, expiration));
+        publish(OPERATION_KEY, key);
+    }
+
+    @Override
+    public <T> T getOrSet(String key, Class<T> type, Supplier<T> supplier) {
+        return getOrSet(key, type, null, supplier);
+    }
+
+    @Override
+    public <T> T getOrSet(String key, Class<T> type, Duration expiration, Supplier<T> supplier) {
+        CacheEntry entry = localCache.getIfPresent(key);
+        boolean loaded = false;
+        if (entry == null) {
+            // Redis round-trips and the supplier run outside Caffeine's map lock
+            LoadCoalescer.Result<CacheEntry> result = localLoads.load(key, () -> {
+                RedisCacheManager.Entry<T> remote = redisCacheManager.getWithTtl(key, type);
+                if (remote != null) {
+                    remoteHits.increment();
+                    return localEntry(remote);
+                }
+                remoteMisses.increment();
+                T value = redisCacheManager.load(key, type, expiration, supplier);
+                return value != null ? localEntry(value, expiration) : null;
+            }, created -> storeLocal(key, created));
+            entry = result.value();
+            loaded = result.loaded();
+        }
+        if (!loaded) {
+            cacheMetrics.recordHit(key);
+        }
+        return entry != null ? convert(entry.value(), type) : null;
+    }
+
+    @Override
+    public <T> Map<String, T> getAll(Collection<String> keys, Class<T> type) {
+        Map<String, T> result = new LinkedHashMap<>();
+        Map<String, CacheEntry> localEntries = localCache.getAllPresent(keys);
+        localEntries.forEach((key, entry) -> {
+            cacheMetrics.recordHit(key);
+            T value = convert(entry.value(), type);
+            if (value != null) {
+                result.put(key, value);
+            }
+        });
+
+        List<String> missingKeys = keys.stream()
+                .filter(key -> !localEntries.containsKey(key))
+                .toList();
+        if (missingKeys.isEmpty()) {
+            return result;
+        }
+
+        Map<String, LoadCoalescer.Result<CacheEntry>> remoteEntries = localLoads.loadAll(missingKeys, requested -> {
+            Map<String, RedisCacheManager.Entry<T>> remote = redisCacheManager.getAllWithTtl(requested, type);
+            remoteHits.add(remote.size());
+            remoteMisses.add(requested.size() - remote.size());
+            Map<String, CacheEntry> entries = new HashMap<>();
+            remote.forEach((key, entry) -> entries.put(key, localEntry(entry)));
+            return entries;
+        }, this::storeLocal);
+        remoteEntries.forEach((key, loaded) -> {
+            if (!loaded.loaded()) {
+                recordGet(key, loaded.value());
+            }
+            T value = loaded.value() != null ? convert(loaded.value().value(), type) : null;
+            if (value != null) {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public <T> void setAll(Map<String, T> values, Duration expiration) {
+        if (values.isEmpty()) {
+            return;
+        }
+
+        redisCacheManager.setAll(values, expiration);
+        values.keySet().forEach(localLoads::invalidate);
+        localCache.putAll(toLocalEntries(values, expiration));
+        publish(OPERATION_KEYS, String.join(KEY_SEPARATOR, values.keySet()));
+    }
+
+    /**
+     * Keys missing in L1 are read from Redis in one round-trip and the rest are loaded with one loader call.
+     * Keys already being loaded on this node are awaited, and a key invalidated meanwhile is not stored in L1.
+     */
+    @Override
+    public <T> Map<String, T> getOrSetAll(Collection<String> keys, Class<T> type, Duration expiration,
+                                          Function<Collection<String>, Map<String, T>> loader) {
+        Map<String, CacheEntry> entries = new HashMap<>(localCache.getAllPresent(keys));
+        List<String> missingKeys = keys.stream()
+                .filter(key -> !entries.containsKey(key))
+                .distinct()
+                .toList();
+
+        Set<String> localMisses = new HashSet<>();
+        if (!missingKeys.isEmpty()) {
+            Map<String, LoadCoalescer.Result<CacheEntry>> loaded = localLoads.loadAll(missingKeys, requested -> {
+                Map<String, RedisCacheManager.Entry<T>> remote = redisCacheManager.getAllWithTtl(requested, type);
+                remoteHits.add(remote.size());
+                remoteMisses.add(requested.size() - remote.size());
+
+                Map<String, CacheEntry> loadedEntries = new HashMap<>();
+                remote.forEach((key, entry) -> loadedEntries.put(key, localEntry(entry)));
+                List<String> remainingKeys = requested.stream()
+                        .filter(key -> !remote.containsKey(key))
+                        .toList();
+                if (!remainingKeys.isEmpty()) {
+                    redisCacheManager.loadAll(remainingKeys, type, expiration, loader)
+                            .forEach((key, value) -> loadedEntries.put(key, localEntry(value, expiration)));
+                }
+                return loadedEntries;
+            }, this::storeLocal);
+            loaded.forEach((key, result) -> {
+                if (result.loaded()) {
+                    localMisses.add(key);
+                }
+                if (result.value() != null) {
+                    entries.put(key, result.value());
+                }
+            });
+        }
+        keys.stream()
+                .filter(key -> !localMisses.contains(key))
+                .forEach(cacheMetrics::recordHit);
+
+        Map<String, T> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            CacheEntry entry = entries.get(key);
+            T value = entry != null ? convert(entry.value(), type) : null;
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void remove(String key) {
+        redisCacheManager.remove(key);
+        invalidateLocal(key);
+        publish(OPERATION_KEY, key);
+    }
+
+    @Override
+    public void removePattern(String pattern) {
+        redisCacheManager.removePattern(pattern);
+        removeLocalPattern(pattern);
+        publish(OPERATION_PATTERN, pattern);
+    }
+
+    @Override
+    public long count(String pattern) {
+        return redisCacheManager.count(pattern);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return localCache.getIfPresent(key) != null || redisCacheManager.exists(key);
+    }
+
+    @Override
+    public void clear() {
+        redisCacheManager.clear();
+        invalidateLocalAll();
+        publish(OPERATION_CLEAR, "");
+    }
+
+    /**
+     * Handle invalidation published by other nodes.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        switch (parts[1]) {
+            case OPERATION_KEY -> invalidateLocal(parts[2]);
+            case OPERATION_KEYS -> List.of(parts[2].split(KEY_SEPARATOR)).forEach(this::invalidateLocal);
+            case OPERATION_PATTERN -> removeLocalPattern(parts[2]);
+            case OPERATION_CLEAR -> invalidateLocalAll();
+            default -> log.warn("Unknown cache invalidation operation: {}", parts[1]);
+        }
+    }
+
+    private void publish(String operation, String argument) {
+        try {
+            stringRedisTemplate.convertAndSend(
+                    invalidationChannel,
+                    String.join(MESSAGE_SEPARATOR, nodeId, operation, argument)
+            );
+        } catch (Exception e) {
+            log.error("Error publishing cache invalidation for {}: {}", argument, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop a local entry; a local load of the key that is still running will not store its result.
+     */
+    private void invalidateLocal(String key) {
+        localLoads.invalidate(key);
+        localCache.invalidate(key);
+    }
+
+    private void invalidateLocalAll() {
+        localLoads.invalidateAll();
+        localCache.invalidateAll();
+    }
+
+    private void removeLocalPattern(String pattern) {
+        Predicate<String> matcher = CacheKeys.patternMatcher(pattern);
+        localLoads.invalidateIf(matcher);
+        localCache.asMap().keySet().removeIf(matcher);
+    }
+
+    private CacheEntry localEntry(Object value, Duration expiration) {
+        Duration ttl = expiration == null || expiration.compareTo(maxLocalExpiration) > 0
+                ? maxLocalExpiration
+                : expiration;
+        return CacheEntry.of(value, ttl);
+    }
+
+    /**
+     * Local copy of a Redis entry, expiring no later than the Redis entry itself.
+     * An entry that expired while being read gets a zero TTL and is returned but not stored.
+     */
+    private CacheEntry localEntry(RedisCacheManager.Entry<?> remote) {
+        if (remote.ttl() != null && remote.ttl().isZero()) {
+            return new CacheEntry(remote.value(), 0);
+        }
+        return localEntry(remote.value(), remote.ttl());
+    }
+
+    private void storeLocal(String key, CacheEntry entry) {
+        if (entry.expirationNanos() > 0) {
+            localCache.put(key, entry);
+        }
+    }
+
+    /**
+     * Record the lookup of a caller that waited for another caller's load (the loader records its own).
+     */
+    private void recordGet(String key, CacheEntry entry) {
+        if (entry != null) {
+            cacheMetrics.recordHit(key);
+        } else {
+            cacheMetrics.recordMiss(key);
+        }
+    }
+
+    private <T> Map<String, CacheEntry> toLocalEntries(Map<String, T> values, Duration expiration) {
+        Map<String, CacheEntry> entries = new HashMap<>();
+        values.forEach((key, value) -> {
+            if (value != null) {
+                entries.put(key, localEntry(value, expiration));
+            }
+        });
+        return entries;
+    }
+
+    private <T> T convert(Object value, Class<T> type) {
+        if (value == null) {
+            return null;
+        }
+        if (type.isInstance(value)) {
+            return type.cast(value);
+        }
+        return objectMapper.convertValue(value, type);
+    }
+
+    /**
+     * Expose L1/L2 hit ratios when a meter registry is available.
+     */
+    private void bindMetrics() {
+        MeterRegistry registry = meterRegistryProvider.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+
+        CaffeineCacheMetrics.monitor(registry, localCache, "near-cache");
+
+        FunctionCounter.builder("cache.near.l2.gets", remoteHits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Near cache lookups served by Redis after an L1 miss")
+                .register(registry);
+        FunctionCounter.builder("cache.near.l2.gets", remoteMisses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Near cache lookups missing in both L1 and Redis")
+                .register(registry);
+
+        Gauge.builder("cache.near.hit.ratio", localCache, cache -> cache.stats().hitRate())
+                .tag("tier", "l1")
+                .register(registry);
+        Gauge.builder("cache.near.hit.ratio", this, TieredCacheManager::remoteHitRatio)
+                .tag("tier", "l2")
+                .register(registry);
+    }
+
+    private double remoteHitRatio() {
+        long hits = remoteHits.sum();
+        long total = hits + remoteMisses.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,141 @@
+package com.nuclea.common.service.cache.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.nuclea.common.config.CacheCodecProperties;
+import lombok.extern.slf4j.Slf4j;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Encodes cache values to the binary form stored in Redis.
+ * <p>
+ * Layout: one header byte (codec id, high bit set when compressed), a 4-byte original length
+ * when compressed, then the payload. The header makes every value self-describing, so changing
+ * the codec of a region does not break entries written before the change.
+ */
+@Component
+@Slf4j
+public class CacheValueSerializer {
+
+    private static final byte COMPRESSED_FLAG = (byte) 0x80;
+    private static final byte CODEC_ID_MASK = 0x7F;
+    private static final int HEADER_LENGTH = 1;
+    private static final int LENGTH_FIELD_LENGTH = 4;
+
+    private final CacheCodecProperties properties;
+    private final Map<String, ICacheCodec> codecsByName = new HashMap<>();
+    private final ICacheCodec[] codecsById = new ICacheCodec[CODEC_ID_MASK + 1];
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    public CacheValueSerializer(ObjectMapper objectMapper, CacheCodecProperties properties) {
+        this.properties = properties;
+
+        // Binary mappers share the modules and features of the application mapper
+        register(new JacksonCacheCodec((byte) 1, "json", objectMapper));
+        register(new JacksonCacheCodec((byte) 2, "smile", objectMapper.copyWith(new SmileFactory())));
+        register(new JacksonCacheCodec((byte) 3, "cbor", objectMapper.copyWith(new CBORFactory())));
+
+        LZ4Factory lz4 = LZ4Factory.fastestInstance();
+        this.compressor = lz4.fastCompressor();
+        this.decompressor = lz4.fastDecompressor();
+    }
+
+    /**
+     * Serialize value with the codec configured for the key's region.
+     */
+    public byte[] serialize(String key, Object value) throws IOException {
+        ICacheCodec codec = codecFor(key);
+        byte[] payload = codec.encode(value);
+
+        if (Boolean.TRUE.equals(properties.getCompressionEnabled())
+                && payload.length >= properties.getCompressionThreshold()) {
+            byte[] compressed = compress(codec.id(), payload);
+            if (compressed.length < payload.length + HEADER_LENGTH) {
+                return compressed;
+            }
+        }
+
+        byte[] data = new byte[HEADER_LENGTH + payload.length];
+        data[0] = codec.id();
+        System.arraycopy(payload, 0, data, HEADER_LENGTH, payload.length);
+        return data;
+    }
+
+    /**
+     * Deserialize bytes written by {@link #serialize(String, Object)}.
+     */
+    public <T> T deserialize(byte[] data, Class<T> type) throws IOException {
+        if (data == null || data.length < HEADER_LENGTH) {
+            return null;
+        }
+
+        ICacheCodec codec = codecsById[data[0] & CODEC_ID_MASK];
+        if (codec == null) {
+            throw new IOException("Unknown cache codec id: " + (data[0] & CODEC_ID_MASK));
+        }
+
+        if ((data[0] & COMPRESSED_FLAG) == 0) {
+            return codec.decode(data, HEADER_LENGTH, data.length - HEADER_LENGTH, type);
+        }
+
+        int originalLength = readLength(data);
+        byte[] payload = new byte[originalLength];
+        decompressor.decompress(data, HEADER_LENGTH + LENGTH_FIELD_LENGTH, payload, 0, originalLength);
+        return codec.decode(payload, 0, originalLength, type);
+    }
+
+    /**
+     * Codec used for the region of a key: the key prefix up to the first colon.
+     */
+    ICacheCodec codecFor(String key) {
+        int separator = key.indexOf(':');
+        String codecName = separator > 0 ? properties.getRegions().get(key.substring(0, separator)) : null;
+        if (codecName == null) {
+            codecName = properties.getDefaultCodec();
+        }
+
+        ICacheCodec codec = codecsByName.get(codecName.toLowerCase(Locale.ROOT));
+        if (codec == null) {
+            log.warn("Unknown cache codec {}, falling back to json", codecName);
+            return codecsByName.get("json");
+        }
+        return codec;
+    }
+
+    private byte[] compress(byte codecId, byte[] payload) {
+        int prefixLength = HEADER_LENGTH + LENGTH_FIELD_LENGTH;
+        byte[] buffer = new byte[prefixLength + compressor.maxCompressedLength(payload.length)];
+        buffer[0] = (byte) (codecId | COMPRESSED_FLAG);
+        buffer[1] = (byte) (payload.length >>> 24);
+        buffer[2] = (byte) (payload.length >>> 16);
+        buffer[3] = (byte) (payload.length >>> 8);
+        buffer[4] = (byte) payload.length;
+
+        int compressedLength = compressor.compress(payload, 0, payload.length, buffer, prefixLength);
+        byte[] data = new byte[prefixLength + compressedLength];
+        System.arraycopy(buffer, 0, data, 0, data.length);
+        return data;
+    }
+
+    private static int readLength(byte[] data) {
+        return ((data[1] & 0xFF) << 24)
+                | ((data[2] & 0xFF) << 16)
+                | ((data[3] & 0xFF) << 8)
+                | (data[4] & 0xFF);
+    }
+
+    private void register(ICacheCodec codec) {
+        codecsByName.put(codec.name(), codec);
+        codecsById[codec.id()] = codec;
+    }
+}
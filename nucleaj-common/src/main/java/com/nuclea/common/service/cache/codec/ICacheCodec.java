@@ -0,0 +1,29 @@
+package com.nuclea.common.service.cache.codec;
+
+import java.io.IOException;
+
+/**
+ * Codec for turning cache values into bytes and back.
+ */
+public interface ICacheCodec {
+
+    /**
+     * Identifier written into every encoded value so it can be decoded regardless of the current configuration.
+     */
+    byte id();
+
+    /**
+     * Codec name used in configuration.
+     */
+    String name();
+
+    /**
+     * Encode value to bytes.
+     */
+    byte[] encode(Object value) throws IOException;
+
+    /**
+     * Decode a slice of bytes to the requested type.
+     */
+    <T> T decode(byte[] data, int offset, int length, Class<T> type) throws IOException;
+}
@@ -0,0 +1,41 @@
+package com.nuclea.common.service.cache.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * Cache codec backed by a Jackson ObjectMapper (JSON, Smile or CBOR depending on its factory).
+ */
+public class JacksonCacheCodec implements ICacheCodec {
+
+    private final byte id;
+    private final String name;
+    private final ObjectMapper objectMapper;
+
+    public JacksonCacheCodec(byte id, String name, ObjectMapper objectMapper) {
+        this.id = id;
+        this.name = name;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte id() {
+        return id;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public <T> T decode(byte[] data, int offset, int length, Class<T> type) throws IOException {
+        return objectMapper.readValue(data, offset, length, type);
+    }
+}
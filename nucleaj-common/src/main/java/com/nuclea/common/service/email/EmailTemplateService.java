@@ -1,35 +1,136 @@
 package com.nuclea.common.service.email;
 
 import com.nuclea.common.service.marker.ISingletonService;
+import com.nuclea.data.enums.LanguageEnum;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Service;
-import org.springframework.ui.freemarker.FreeMarkerTemplateUtils;
 
+import java.io.IOException;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Email template engine service using FreeMarker.
+ * <p>
+ * All templates under {@code templates/email} are compiled at startup for every supported language,
+ * so the locale variant (e.g. {@code email-verification_tr.ftl}) is resolved once. Rendering writes into
+ * a per-thread reusable buffer. Set {@code app.mail.templates.precompile=false} during template
+ * development to get FreeMarker's own reloading instead.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class EmailTemplateService implements ISingletonService {
 
+    private static final String TEMPLATE_LOCATION = "classpath*:/templates/email/**/*.ftl";
+    private static final String TEMPLATE_SUFFIX = ".ftl";
+
     private final Configuration freemarkerConfig;
+    private final boolean precompile;
+    private final Map<TemplateKey, Template> compiledTemplates = new ConcurrentHashMap<>();
+    private final ThreadLocal<ReusableStringWriter> writers = ThreadLocal.withInitial(ReusableStringWriter::new);
+
+    public EmailTemplateService(
+            Configuration freemarkerConfig,
+            @Value("${app.mail.templates.precompile:true}") boolean precompile
+    ) {
+        this.freemarkerConfig = freemarkerConfig;
+        this.precompile = precompile;
+    }
+
+    /**
+     * Compile every email template for each supported language.
+     */
+    @PostConstruct
+    public void precompileTemplates() {
+        if (!precompile) {
+            return;
+        }
+
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(TEMPLATE_LOCATION);
+            for (Resource resource : resources) {
+                String templateName = baseTemplateName(resource.getFilename());
+                if (templateName == null) {
+                    continue;
+                }
+                resolve(templateName, null);
+                for (LanguageEnum language : LanguageEnum.values()) {
+                    resolve(templateName, Locale.forLanguageTag(language.getCode()));
+                }
+            }
+            log.info("Precompiled {} email template variants", compiledTemplates.size());
+        } catch (Exception e) {
+            // Templates still compile lazily on first use
+            log.error("Error precompiling email templates: {}", e.getMessage(), e);
+        }
+    }
 
     /**
      * Process template with variables.
      */
     public String processTemplate(String templateName, Map<String, Object> variables) {
+        return processTemplate(templateName, variables, null);
+    }
+
+    /**
+     * Process the locale variant of a template with variables.
+     */
+    public String processTemplate(String templateName, Map<String, Object> variables, Locale locale) {
         try {
-            Template template = freemarkerConfig.getTemplate(templateName + ".ftl");
-            return FreeMarkerTemplateUtils.processTemplateIntoString(template, variables);
+            Template template = resolve(templateName, locale);
+            ReusableStringWriter writer = writers.get();
+            writer.reset();
+            template.process(variables, writer);
+            return writer.toString();
         } catch (Exception e) {
             log.error("Error processing template {}: {}", templateName, e.getMessage(), e);
             throw new RuntimeException("Failed to process email template: " + templateName, e);
         }
     }
+
+    private Template resolve(String templateName, Locale locale) throws IOException {
+        if (!precompile) {
+            return load(templateName, locale);
+        }
+
+        TemplateKey key = new TemplateKey(templateName, locale);
+        Template template = compiledTemplates.get(key);
+        if (template == null) {
+            template = load(templateName, locale);
+            compiledTemplates.putIfAbsent(key, template);
+        }
+        return template;
+    }
+
+    private Template load(String templateName, Locale locale) throws IOException {
+        String path = templateName + TEMPLATE_SUFFIX;
+        return locale != null ? freemarkerConfig.getTemplate(path, locale) : freemarkerConfig.getTemplate(path);
+    }
+
+    /**
+     * Template name without suffix and locale part ({@code email-verification_tr.ftl -> email-verification}).
+     */
+    private static String baseTemplateName(String filename) {
+        if (filename == null || !filename.endsWith(TEMPLATE_SUFFIX)) {
+            return null;
+        }
+        String name = filename.substring(0, filename.length() - TEMPLATE_SUFFIX.length());
+        for (LanguageEnum language : LanguageEnum.values()) {
+            String localeSuffix = "_" + language.getCode();
+            if (name.endsWith(localeSuffix)) {
+                return name.substring(0, name.length() - localeSuffix.length());
+            }
+        }
+        return name;
+    }
+
+    private record TemplateKey(String name, Locale locale) {
+    }
 }
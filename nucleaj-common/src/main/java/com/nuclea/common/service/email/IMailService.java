@@ -1,5 +1,6 @@
 package com.nuclea.common.service.email;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -22,6 +23,18 @@ public interface IMailService {
      */
     boolean sendTemplateEmail(String to, String subject, String templateName, Map<String, Object> variables);
 
+    /**
+     * Queue template email for asynchronous delivery.
+     * Inside a transaction the email is only dispatched once the transaction commits.
+     */
+    void queueTemplateEmail(String to, String subject, String templateName, Map<String, Object> variables);
+
+    /**
+     * Send template emails to many recipients over reused SMTP connections.
+     * Blocks until every recipient has a result.
+     */
+    MailBatchResult sendBatch(List<MailBatchItem> items);
+
     /**
      * Send email with attachments.
      */
@@ -0,0 +1,20 @@
+package com.nuclea.common.service.email;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Single recipient of a batch send.
+ *
+ * @param to           recipient address
+ * @param subject      email subject
+ * @param templateName template under templates/email, without suffix
+ * @param variables    template variables for this recipient
+ * @param locale       template locale variant, null for the default template
+ */
+public record MailBatchItem(String to, String subject, String templateName, Map<String, Object> variables, Locale locale) {
+
+    public MailBatchItem(String to, String subject, String templateName, Map<String, Object> variables) {
+        this(to, subject, templateName, variables, null);
+    }
+}
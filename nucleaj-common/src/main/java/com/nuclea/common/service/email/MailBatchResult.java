@@ -0,0 +1,34 @@
+package com.nuclea.common.service.email;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch send, with one entry per recipient in input order.
+ *
+ * @param results       per-recipient results
+ * @param elapsedMillis wall time of the whole batch
+ */
+public record MailBatchResult(List<RecipientResult> results, long elapsedMillis) {
+
+    public long sentCount() {
+        return results.stream().filter(RecipientResult::sent).count();
+    }
+
+    public long failedCount() {
+        return results.size() - sentCount();
+    }
+
+    public double messagesPerSecond() {
+        return elapsedMillis > 0 ? sentCount() * 1000.0 / elapsedMillis : 0.0;
+    }
+
+    /**
+     * Result for a single recipient.
+     *
+     * @param recipient recipient address
+     * @param sent      whether the message was accepted by the SMTP server
+     * @param error     failure reason, null when sent
+     */
+    public record RecipientResult(String recipient, boolean sent, String error) {
+    }
+}
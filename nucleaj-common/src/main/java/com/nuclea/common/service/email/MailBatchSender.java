@@ -0,0 +1,177 @@
+package com.nuclea.common.service.email;
+
+import com.nuclea.common.service.marker.ISingletonService;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sends template emails to many recipients.
+ * <p>
+ * Each worker renders its recipients' templates and sends over its own pooled SMTP transport, so a
+ * batch costs one handshake per worker instead of one per message. Sends across all workers are
+ * paced to {@code app.mail.batch.rate-per-second} (0 disables pacing).
+ */
+@Component
+@Slf4j
+public class MailBatchSender implements ISingletonService {
+
+    private final JavaMailSender mailSender;
+    private final EmailTemplateService templateService;
+    private final SmtpConnectionPool connectionPool;
+    private final ThreadPoolExecutor workers;
+    private final int workerCount;
+    private final long intervalNanos;
+    private final ReentrantLock rateLock = new ReentrantLock();
+    private long nextSendAt = System.nanoTime();
+
+    @Value("${spring.mail.username:noreply@nuclea.com}")
+    private String fromEmail;
+
+    @Value("${app.mail.sender-name:Nuclea}")
+    private String fromName;
+
+    public MailBatchSender(
+            JavaMailSender mailSender,
+            EmailTemplateService templateService,
+            SmtpConnectionPool connectionPool,
+            @Value("${app.mail.batch.workers:4}") int workerCount,
+            @Value("${app.mail.batch.rate-per-second:20}") double ratePerSecond
+    ) {
+        this.mailSender = mailSender;
+        this.templateService = templateService;
+        this.connectionPool = connectionPool;
+        this.workerCount = Math.max(1, workerCount);
+        this.intervalNanos = ratePerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond) : 0L;
+
+        // Platform threads even in virtual-thread mode: SMTPTransport.sendMessage is synchronized and would pin
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+                this.workerCount, this.workerCount,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.workerCount * 4),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "mail-batch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Send all items and wait for completion.
+     */
+    public MailBatchResult send(List<MailBatchItem> items) {
+        long startedAt = System.currentTimeMillis();
+        if (items == null || items.isEmpty()) {
+            return new MailBatchResult(List.of(), 0L);
+        }
+
+        MailBatchResult.RecipientResult[] results = new MailBatchResult.RecipientResult[items.size()];
+        AtomicInteger nextIndex = new AtomicInteger();
+        int taskCount = Math.min(workerCount, items.size());
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            Runnable worker = () -> drain(items, results, nextIndex);
+            try {
+                tasks.add(CompletableFuture.runAsync(worker, workers));
+            } catch (RejectedExecutionException e) {
+                // Pool busy with other batches; the caller thread takes a share of the work
+                worker.run();
+            }
+        }
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+
+        MailBatchResult result = new MailBatchResult(Arrays.asList(results), System.currentTimeMillis() - startedAt);
+        log.info("Mail batch finished: {} sent, {} failed in {} ms ({} msg/s)",
+                result.sentCount(), result.failedCount(), result.elapsedMillis(),
+                String.format("%.1f", result.messagesPerSecond()));
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain(List<MailBatchItem> items, MailBatchResult.RecipientResult[] results, AtomicInteger nextIndex) {
+        try {
+            int index;
+            while ((index = nextIndex.getAndIncrement()) < items.size()) {
+                results[index] = sendOne(items.get(index));
+            }
+        } finally {
+            connectionPool.closeCurrent();
+        }
+    }
+
+    private MailBatchResult.RecipientResult sendOne(MailBatchItem item) {
+        try {
+            String htmlContent = templateService.processTemplate(item.templateName(), item.variables(), item.locale());
+
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setFrom(String.format("%s <%s>", fromName, fromEmail));
+            helper.setTo(item.to());
+            helper.setSubject(item.subject());
+            helper.setText(htmlContent, true);
+
+            acquireSendPermit();
+            connectionPool.send(message);
+            return new MailBatchResult.RecipientResult(item.to(), true, null);
+        } catch (Exception e) {
+            log.warn("Batch email to {} failed: {}", item.to(), e.getMessage());
+            return new MailBatchResult.RecipientResult(item.to(), false, e.getMessage());
+        }
+    }
+
+    /**
+     * Reserve the next send slot and wait for it; slots are spaced evenly at the configured rate.
+     */
+    private void acquireSendPermit() {
+        if (intervalNanos == 0L) {
+            return;
+        }
+
+        long sendAt;
+        rateLock.lock();
+        try {
+            long now = System.nanoTime();
+            sendAt = Math.max(nextSendAt, now);
+            nextSendAt = sendAt + intervalNanos;
+        } finally {
+            rateLock.unlock();
+        }
+
+        long waitNanos;
+        while ((waitNanos = sendAt - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.nuclea.common.service.email;
+
+import com.nuclea.common.service.marker.ISingletonService;
+import com.nuclea.common.service.resilience.ResilienceGuard;
+import com.nuclea.data.entity.mail.MailOutboxMessage;
+import com.nuclea.data.enums.MailOutboxStatus;
+import com.nuclea.data.repository.mail.MailOutboxMessageRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transactional outbox for emails.
+ * <p>
+ * {@link #enqueue} stores the rendered message in the caller's transaction and hands it to the
+ * worker pool only after commit, so SMTP latency never holds a DB transaction or request thread.
+ * Workers send over pooled SMTP connections; failures are retried with exponential backoff and
+ * messages that exhaust {@code app.mail.outbox.max-attempts} are kept as DEAD records.
+ * A poller picks up retries and anything the after-commit dispatch missed (full queue, restart).
+ */
+@Service
+@Slf4j
+public class MailOutboxService implements ISingletonService {
+
+    private static final int POLL_BATCH_SIZE = 100;
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final Duration STALE_SENDING_AFTER = Duration.ofMinutes(10);
+
+    private final MailOutboxMessageRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final SmtpConnectionPool connectionPool;
+    private final ThreadPoolExecutor workers;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    @Value("${spring.mail.username:noreply@nuclea.com}")
+    private String fromEmail;
+
+    @Value("${app.mail.sender-name:Nuclea}")
+    private String fromName;
+
+    public MailOutboxService(
+            MailOutboxMessageRepository outboxRepository,
+            JavaMailSender mailSender,
+            SmtpConnectionPool connectionPool,
+            @Value("${app.mail.outbox.workers:4}") int workerCount,
+            @Value("${app.mail.outbox.queue-capacity:1000}") int queueCapacity,
+            @Value("${app.mail.outbox.max-attempts:6}") int maxAttempts,
+            @Value("${app.mail.outbox.initial-backoff:30s}") Duration initialBackoff,
+            @Value("${app.mail.outbox.max-backoff:1h}") Duration maxBackoff
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.connectionPool = connectionPool;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+
+        // Platform threads even in virtual-thread mode: SMTPTransport.sendMessage is synchronized and would pin
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+                workerCount, workerCount,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "mail-outbox-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Queue an email; it is dispatched after the current transaction commits (or immediately without one).
+     */
+    public MailOutboxMessage enqueue(String to, String subject, String body, boolean html) {
+        MailOutboxMessage message = outboxRepository.save(MailOutboxMessage.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(body)
+                .isHtml(html)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+
+        Long id = message.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(id);
+                }
+            });
+        } else {
+            dispatch(id);
+        }
+        return message;
+    }
+
+    /**
+     * Pick up due retries and messages whose dispatch was missed.
+     */
+    @Scheduled(
+            fixedDelayString = "${app.mail.outbox.poll-interval-ms:30000}",
+            initialDelayString = "${app.mail.outbox.poll-interval-ms:30000}"
+    )
+    public void pollDueMessages() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int released = outboxRepository.releaseStale(now.minus(STALE_SENDING_AFTER));
+            if (released > 0) {
+                log.warn("Released {} stale outbox messages for redelivery", released);
+            }
+
+            List<Long> dueIds = outboxRepository.findDueIds(MailOutboxStatus.PENDING, now, PageRequest.of(0, POLL_BATCH_SIZE));
+            dueIds.forEach(this::dispatch);
+        } catch (Exception e) {
+            log.error("Error polling mail outbox: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatch(Long id) {
+        try {
+            workers.execute(() -> deliver(id));
+        } catch (RejectedExecutionException e) {
+            // Stays PENDING; the poller retries it
+            log.warn("Mail outbox queue full, message {} left for the poller", id);
+        }
+    }
+
+    private void deliver(Long id) {
+        if (outboxRepository.claim(id, LocalDateTime.now()) == 0) {
+            return;
+        }
+
+        MailOutboxMessage message = outboxRepository.findById(id).orElse(null);
+        if (message == null) {
+            return;
+        }
+
+        try {
+            connectionPool.send(toMimeMessage(message));
+            message.setStatus(MailOutboxStatus.SENT);
+            message.setSentAt(LocalDateTime.now());
+            message.setLastError(null);
+            log.info("Outbox email {} sent to: {}", id, message.getRecipient());
+        } catch (Exception e) {
+            if (ResilienceGuard.isRejected(e)) {
+                // SMTP known to be down; does not count as a delivery attempt
+                message.setStatus(MailOutboxStatus.PENDING);
+                message.setNextAttemptAt(LocalDateTime.now().plus(initialBackoff));
+                outboxRepository.save(message);
+                return;
+            }
+            int attempts = message.getAttempts() + 1;
+            message.setAttempts(attempts);
+            message.setLastError(truncate(e.getMessage()));
+            if (attempts >= maxAttempts) {
+                message.setStatus(MailOutboxStatus.DEAD);
+                log.error("Outbox email {} to {} dead after {} attempts: {}", id, message.getRecipient(), attempts, e.getMessage());
+            } else {
+                message.setStatus(MailOutboxStatus.PENDING);
+                message.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+                log.warn("Outbox email {} to {} failed (attempt {}), retrying: {}", id, message.getRecipient(), attempts, e.getMessage());
+            }
+        }
+        outboxRepository.save(message);
+    }
+
+    private MimeMessage toMimeMessage(MailOutboxMessage message) throws Exception {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+        helper.setFrom(String.format("%s <%s>", fromName, fromEmail));
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getBody(), Boolean.TRUE.equals(message.getIsHtml()));
+        return mimeMessage;
+    }
+
+    /**
+     * Exponential backoff: initial * 2^(attempts - 1), capped.
+     */
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
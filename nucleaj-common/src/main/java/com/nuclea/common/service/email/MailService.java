@@ -1,6 +1,7 @@
 package com.nuclea.common.service.email;
 
 import com.nuclea.common.service.marker.IScopedService;
+import com.nuclea.common.service.resilience.ResilienceGuard;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,6 +12,7 @@ import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -23,6 +25,9 @@ public class MailService implements IMailService, IScopedService {
 
     private final JavaMailSender mailSender;
     private final EmailTemplateService templateService;
+    private final MailOutboxService outboxService;
+    private final MailBatchSender batchSender;
+    private final ResilienceGuard resilienceGuard;
 
     @Value("${spring.mail.username:noreply@nuclea.com}")
     private String fromEmail;
@@ -39,10 +44,13 @@ public class MailService implements IMailService, IScopedService {
             message.setSubject(subject);
             message.setText(body);
 
-            mailSender.send(message);
+            send(() -> mailSender.send(message));
             log.info("Email sent successfully to: {}", to);
             return true;
         } catch (Exception e) {
+            if (ResilienceGuard.isRejected(e)) {
+                return queueInstead(to, subject, body, false);
+            }
             log.error("Error sending email to {}: {}", to, e.getMessage(), e);
             return false;
         }
@@ -59,10 +67,13 @@ public class MailService implements IMailService, IScopedService {
             helper.setSubject(subject);
             helper.setText(htmlBody, true);
 
-            mailSender.send(message);
+            send(() -> mailSender.send(message));
             log.info("HTML email sent successfully to: {}", to);
             return true;
         } catch (Exception e) {
+            if (ResilienceGuard.isRejected(e)) {
+                return queueInstead(to, subject, htmlBody, true);
+            }
             log.error("Error sending HTML email to {}: {}", to, e.getMessage(), e);
             return false;
         }
@@ -79,6 +90,18 @@ public class MailService implements IMailService, IScopedService {
         }
     }
 
+    @Override
+    public void queueTemplateEmail(String to, String subject, String templateName, Map<String, Object> variables) {
+        String htmlContent = templateService.processTemplate(templateName, variables);
+        outboxService.enqueue(to, subject, htmlContent, true);
+        log.debug("Template email {} queued for: {}", templateName, to);
+    }
+
+    @Override
+    public MailBatchResult sendBatch(List<MailBatchItem> items) {
+        return batchSender.send(items);
+    }
+
     @Override
     public boolean sendEmailWithAttachment(String to, String subject, String body, String attachmentPath) {
         try {
@@ -95,7 +118,7 @@ public class MailService implements IMailService, IScopedService {
                 helper.addAttachment(attachment.getName(), attachment);
             }
 
-            mailSender.send(message);
+            send(() -> mailSender.send(message));
             log.info("Email with attachment sent successfully to: {}", to);
             return true;
         } catch (Exception e) {
@@ -103,4 +126,28 @@ public class MailService implements IMailService, IScopedService {
             return false;
         }
     }
+
+    /**
+     * Send through the mail circuit breaker; fails fast while the SMTP server is unavailable.
+     */
+    private void send(Runnable sendAction) {
+        resilienceGuard.execute(ResilienceGuard.MAIL, () -> {
+            sendAction.run();
+            return null;
+        });
+    }
+
+    /**
+     * Fallback while SMTP is unavailable: hand the message to the outbox, which retries later.
+     */
+    private boolean queueInstead(String to, String subject, String body, boolean html) {
+        try {
+            outboxService.enqueue(to, subject, body, html);
+            log.warn("SMTP unavailable, email to {} queued in outbox", to);
+            return true;
+        } catch (Exception e) {
+            log.error("Error queueing email to {}: {}", to, e.getMessage(), e);
+            return false;
+        }
+    }
 }
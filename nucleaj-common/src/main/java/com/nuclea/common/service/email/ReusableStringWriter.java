@@ -0,0 +1,62 @@
+package com.nuclea.common.service.email;
+
+import java.io.Writer;
+
+/**
+ * Unsynchronized, resettable writer backed by a StringBuilder.
+ * Held per thread by {@link EmailTemplateService} so renders reuse the same buffer.
+ */
+final class ReusableStringWriter extends Writer {
+
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+    private static final int MAX_RETAINED_CAPACITY = 256 * 1024;
+
+    private StringBuilder buffer = new StringBuilder(INITIAL_CAPACITY);
+
+    /**
+     * Clear content; drops buffers that grew unusually large so they are not retained by the thread.
+     */
+    void reset() {
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            buffer = new StringBuilder(INITIAL_CAPACITY);
+        } else {
+            buffer.setLength(0);
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+        buffer.append(cbuf, off, len);
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+        buffer.append(str, off, off + len);
+    }
+
+    @Override
+    public void write(int c) {
+        buffer.append((char) c);
+    }
+
+    @Override
+    public Writer append(CharSequence csq) {
+        buffer.append(csq);
+        return this;
+    }
+
+    @Override
+    public void flush() {
+        // Nothing to flush
+    }
+
+    @Override
+    public void close() {
+        // Kept open for reuse
+    }
+
+    @Override
+    public String toString() {
+        return buffer.toString();
+    }
+}
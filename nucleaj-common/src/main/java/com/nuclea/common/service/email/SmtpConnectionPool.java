@@ -0,0 +1,141 @@
+package com.nuclea.common.service.email;
+
+import com.nuclea.common.service.marker.ISingletonService;
+import com.nuclea.common.service.resilience.ResilienceGuard;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one authenticated SMTP transport per sending thread so worker threads reuse their
+ * connection instead of doing a connect/EHLO/AUTH handshake per message.
+ * Falls back to {@link JavaMailSender#send(MimeMessage)} when the sender is not a {@link JavaMailSenderImpl}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SmtpConnectionPool implements ISingletonService {
+
+    private final JavaMailSender mailSender;
+    private final ResilienceGuard resilienceGuard;
+    private final ThreadLocal<Transport> transports = new ThreadLocal<>();
+    private final Set<Transport> openTransports = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Send message over this thread's transport, reconnecting once if the connection was dropped.
+     * Runs under the mail circuit breaker, so it fails fast while the SMTP server is unavailable.
+     */
+    public void send(MimeMessage message) throws MessagingException {
+        resilienceGuard.execute(ResilienceGuard.MAIL, () -> {
+            doSend(message);
+            return null;
+        });
+    }
+
+    private void doSend(MimeMessage message) throws MessagingException {
+        if (!(mailSender instanceof JavaMailSenderImpl senderImpl)) {
+            mailSender.send(message);
+            return;
+        }
+
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+
+        Transport transport = connectedTransport(senderImpl);
+        try {
+            transport.sendMessage(message, message.getAllRecipients());
+        } catch (MessagingException e) {
+            // Servers drop idle connections; retry once on a fresh one, but never after the server
+            // answered, since some recipients may already have the message
+            if (!isConnectionFailure(e, transport)) {
+                throw e;
+            }
+            log.debug("SMTP send failed on pooled transport, reconnecting: {}", e.getMessage());
+            closeCurrent();
+            connectedTransport(senderImpl).sendMessage(message, message.getAllRecipients());
+        }
+    }
+
+    /**
+     * Close the transport of the calling thread (e.g. when a worker finishes a batch).
+     */
+    public void closeCurrent() {
+        Transport transport = transports.get();
+        transports.remove();
+        if (transport != null) {
+            openTransports.remove(transport);
+            close(transport);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        openTransports.forEach(SmtpConnectionPool::close);
+        openTransports.clear();
+    }
+
+    private Transport connectedTransport(JavaMailSenderImpl senderImpl) throws MessagingException {
+        Transport transport = transports.get();
+        if (transport != null && transport.isConnected()) {
+            return transport;
+        }
+        if (transport != null) {
+            openTransports.remove(transport);
+            close(transport);
+        }
+
+        transport = senderImpl.getSession().getTransport(protocol(senderImpl));
+        transport.connect(senderImpl.getHost(), senderImpl.getPort(), senderImpl.getUsername(), senderImpl.getPassword());
+        transports.set(transport);
+        openTransports.add(transport);
+        return transport;
+    }
+
+    /**
+     * Transport protocol resolved the way {@link JavaMailSenderImpl} does: its own setting, the session's, then smtp.
+     */
+    private static String protocol(JavaMailSenderImpl senderImpl) {
+        String protocol = senderImpl.getProtocol();
+        if (protocol == null) {
+            protocol = senderImpl.getSession().getProperty("mail.transport.protocol");
+        }
+        return protocol != null ? protocol : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+    }
+
+    /**
+     * Whether the send failed because the connection was lost rather than because the server rejected it.
+     */
+    private static boolean isConnectionFailure(MessagingException e, Transport transport) {
+        if (e instanceof SendFailedException) {
+            return false;
+        }
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return !transport.isConnected();
+    }
+
+    private static void close(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP transport: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.nuclea.common.service.file;
+
+import com.nuclea.common.service.marker.ISingletonService;
+import com.nuclea.data.entity.file.FileBlob;
+import com.nuclea.data.repository.file.FileBlobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Deduplicating file storage keyed by SHA-256.
+ * <p>
+ * Content lives once under {@code <upload-dir>/.blobs/ab/cd/<sha256><ext>}; each upload gets a hard link
+ * to it at its usual path (or the blob path itself where hard links are not supported) and bumps the
+ * blob's reference count. The CDN copy is addressed the same way, so repeated content is pushed once.
+ * <p>
+ * {@link #release} deletes the content while holding a lock on the blob row, so a concurrent
+ * {@link #store} of the same content either re-references the row before that (and the content is kept)
+ * or finds the row gone afterwards and writes the content again.
+ */
+@Service
+@Slf4j
+public class ContentAddressedFileStore implements ISingletonService {
+
+    private static final String BLOB_DIRECTORY = ".blobs";
+    private static final String CDN_BLOB_DIRECTORY = "/blobs/";
+
+    private final FileBlobRepository blobRepository;
+    private final FtpClient ftpClient;
+    private final Path blobRoot;
+
+    public ContentAddressedFileStore(
+            FileBlobRepository blobRepository,
+            FtpClient ftpClient,
+            @Value("${app.upload.directory:uploads}") String uploadDirectory
+    ) {
+        this.blobRepository = blobRepository;
+        this.ftpClient = ftpClient;
+        this.blobRoot = Paths.get(uploadDirectory, BLOB_DIRECTORY);
+    }
+
+    /**
+     * Store a fully written, hashed file; the staged file is consumed.
+     *
+     * @param stagedFile file holding the content
+     * @param sha256     hex SHA-256 of the content
+     * @param size       content size
+     * @param extension  file extension including the dot, may be empty
+     * @param targetPath path the caller wants the file to appear at
+     */
+    public FileUploadResult store(Path stagedFile, String sha256, long size, String extension, Path targetPath)
+            throws IOException {
+        Path blobPath = blobPath(sha256, extension);
+
+        boolean referenced = blobRepository.incrementRefCount(sha256) > 0;
+        if (referenced) {
+            Path existingPath = blobRepository.findBySha256(sha256).map(blob -> Paths.get(blob.getStoragePath())).orElse(blobPath);
+            if (Files.exists(existingPath)) {
+                Files.deleteIfExists(stagedFile);
+                log.info("Duplicate upload of {} deduplicated", sha256);
+                return new FileUploadResult(link(existingPath, targetPath), size, sha256);
+            }
+            // Row survived but the content was lost; restore it from this upload
+            moveIntoPlace(stagedFile, existingPath);
+            return new FileUploadResult(link(existingPath, targetPath), size, sha256);
+        }
+
+        moveIntoPlace(stagedFile, blobPath);
+        while (true) {
+            try {
+                blobRepository.save(FileBlob.builder()
+                        .sha256(sha256)
+                        .size(size)
+                        .storagePath(blobPath.toString())
+                        .build());
+                break;
+            } catch (DataIntegrityViolationException e) {
+                // Same content stored concurrently by another request; its row now covers our identical file
+                if (blobRepository.incrementRefCount(sha256) > 0) {
+                    break;
+                }
+                // ...unless that row was released in between, then insert again
+            }
+        }
+        return new FileUploadResult(link(blobPath, targetPath), size, sha256);
+    }
+
+    /**
+     * Drop one reference to the content; the blob is deleted once it is no longer referenced.
+     */
+    @Transactional
+    public boolean release(String sha256, String filePath) {
+        try {
+            FileBlob blob = blobRepository.findBySha256ForUpdate(sha256).orElse(null);
+            if (blob == null) {
+                return false;
+            }
+
+            Path blobPath = Paths.get(blob.getStoragePath());
+            Path path = Paths.get(filePath);
+            if (!path.toAbsolutePath().equals(blobPath.toAbsolutePath())) {
+                Files.deleteIfExists(path);
+            }
+
+            blob.setRefCount(Math.max(0, blob.getRefCount() - 1));
+            if (blob.getRefCount() == 0) {
+                // Content goes first, while the row lock keeps stores of the same content waiting
+                Files.deleteIfExists(blobPath);
+                blobRepository.delete(blob);
+                log.info("Blob {} deleted, no references left", sha256);
+            }
+            return true;
+        } catch (IOException e) {
+            log.error("Error releasing blob {}: {}", sha256, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Upload the content to the CDN unless it is already there; returns the remote path or null on failure.
+     */
+    public String publishToCdn(String sha256) {
+        FileBlob blob = blobRepository.findBySha256(sha256).orElse(null);
+        if (blob == null) {
+            return null;
+        }
+        if (blob.getCdnPath() != null) {
+            return blob.getCdnPath();
+        }
+
+        String remotePath = CDN_BLOB_DIRECTORY + relativeBlobPath(sha256, getExtension(blob.getStoragePath()));
+        if (!ftpClient.uploadFileIfAbsent(blob.getStoragePath(), remotePath, blob.getSize())) {
+            return null;
+        }
+        blobRepository.updateCdnPath(sha256, remotePath);
+        return remotePath;
+    }
+
+    private Path blobPath(String sha256, String extension) {
+        return blobRoot.resolve(relativeBlobPath(sha256, extension));
+    }
+
+    private static String relativeBlobPath(String sha256, String extension) {
+        return sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + (extension == null ? "" : extension);
+    }
+
+    /**
+     * Rename the staged file to the blob path. The path may already hold the same content, written by a
+     * concurrent store of the same SHA-256: the atomic rename then replaces it with identical bytes, and
+     * readers or hard links of the previous file keep seeing complete content. Where the file system
+     * refuses to replace, the existing identical file is kept instead.
+     */
+    private static void moveIntoPlace(Path stagedFile, Path blobPath) throws IOException {
+        Files.createDirectories(blobPath.getParent());
+        try {
+            Files.move(stagedFile, blobPath, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(stagedFile);
+        }
+    }
+
+    /**
+     * Hard link the blob at the target path; falls back to the blob path itself.
+     */
+    private static String link(Path blobPath, Path targetPath) {
+        try {
+            Files.createDirectories(targetPath.getParent());
+            Files.createLink(targetPath, blobPath);
+            return targetPath.toString();
+        } catch (IOException | UnsupportedOperationException e) {
+            log.debug("Hard link not possible for {}, using blob path: {}", targetPath, e.getMessage());
+            return blobPath.toString();
+        }
+    }
+
+    private static String getExtension(String path) {
+        String name = Paths.get(path).getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 ? name.substring(dot) : "";
+    }
+}
@@ -0,0 +1,11 @@
+package com.nuclea.common.service.file;
+
+/**
+ * Result of a streamed upload.
+ *
+ * @param path   saved file path
+ * @param size   number of bytes written
+ * @param sha256 hex SHA-256 of the content, null when hashing was not requested
+ */
+public record FileUploadResult(String path, long size, String sha256) {
+}
@@ -1,76 +1,139 @@
 package com.nuclea.common.service.file;
 
 import com.nuclea.common.service.marker.IScopedService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
 import java.util.UUID;
 
 /**
  * File upload service for managing file uploads.
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class FileUploadService implements IScopedService {
 
+    private static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
+
+    private final ContentAddressedFileStore contentStore;
+
     @Value("${app.upload.directory:uploads}")
     private String uploadDirectory;
 
     @Value("${app.upload.max-file-size:10485760}") // 10MB default
     private long maxFileSize;
 
+    // Store identical content once (by SHA-256) and hand out hard links to it
+    @Value("${app.upload.content-addressed:false}")
+    private boolean contentAddressed;
+
     /**
      * Upload file and return saved file path.
      */
     public String uploadFile(MultipartFile file) throws IOException {
+        return uploadMultipart(file, null);
+    }
+
+    /**
+     * Upload file to specific directory.
+     */
+    public String uploadFile(MultipartFile file, String subdirectory) throws IOException {
+        return uploadMultipart(file, subdirectory);
+    }
+
+    private String uploadMultipart(MultipartFile file, String subdirectory) throws IOException {
         validateFile(file);
 
         String originalFilename = file.getOriginalFilename();
         String extension = getFileExtension(originalFilename);
         String newFilename = generateUniqueFilename(extension);
+        Path uploadPath = createUploadPath(subdirectory);
+        Path filePath = uploadPath.resolve(newFilename);
 
-        Path uploadPath = Paths.get(uploadDirectory);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        if (contentAddressed) {
+            // The container moves its temp file into place and the hash is computed by reading it back,
+            // so the content is not written a second time
+            Path partPath = uploadPath.resolve(newFilename + ".part");
+            try {
+                file.transferTo(partPath.toAbsolutePath().toFile());
+                return contentStore.store(partPath, hash(partPath), file.getSize(), extension, filePath).path();
+            } catch (IOException | RuntimeException e) {
+                discard(partPath, e);
+                throw e;
+            }
         }
 
-        Path filePath = uploadPath.resolve(newFilename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        // transferTo(File) lets the container rename its temp file (Part.write); transferTo(Path) would copy it
+        file.transferTo(filePath.toAbsolutePath().toFile());
 
-        log.info("File uploaded successfully: {}", newFilename);
+        log.info("File uploaded successfully: {}", filePath);
         return filePath.toString();
     }
 
     /**
-     * Upload file to specific directory.
+     * Stream content (e.g. a raw request body) straight into a new file in the given subdirectory.
+     * Memory use is constant, the size limit is enforced while reading and the SHA-256 is computed
+     * on the fly when requested. Partially written files are removed on failure.
      */
-    public String uploadFile(MultipartFile file, String subdirectory) throws IOException {
-        validateFile(file);
+    public FileUploadResult uploadStream(InputStream content, String originalFilename, String subdirectory, boolean computeHash)
+            throws IOException {
+        if (content == null) {
+            throw new IllegalArgumentException("File is empty");
+        }
 
-        String originalFilename = file.getOriginalFilename();
+        Path uploadPath = createUploadPath(subdirectory);
         String extension = getFileExtension(originalFilename);
         String newFilename = generateUniqueFilename(extension);
+        Path filePath = uploadPath.resolve(newFilename);
+        Path partPath = uploadPath.resolve(newFilename + ".part");
 
-        Path uploadPath = Paths.get(uploadDirectory, subdirectory);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
+        MessageDigest digest = computeHash || contentAddressed ? sha256() : null;
+        InputStream source = digest != null ? new DigestInputStream(content, digest) : content;
 
-        Path filePath = uploadPath.resolve(newFilename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        try {
+            long size;
+            try (ReadableByteChannel in = Channels.newChannel(source);
+                 FileChannel out = FileChannel.open(partPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                size = transfer(in, out);
+            }
+            if (size == 0) {
+                throw new IllegalArgumentException("File is empty");
+            }
 
-        log.info("File uploaded successfully to {}: {}", subdirectory, newFilename);
-        return filePath.toString();
+            String hash = digest != null ? HexFormat.of().formatHex(digest.digest()) : null;
+            if (contentAddressed) {
+                return contentStore.store(partPath, hash, size, extension, filePath);
+            }
+
+            Files.move(partPath, filePath, StandardCopyOption.ATOMIC_MOVE);
+
+            log.info("File streamed successfully: {} ({} bytes)", filePath, size);
+            return new FileUploadResult(filePath.toString(), size, hash);
+        } catch (IOException | RuntimeException e) {
+            discard(partPath, e);
+            throw e;
+        }
     }
 
     /**
@@ -88,6 +151,75 @@ public class FileUploadService implements IScopedService {
         }
     }
 
+    /**
+     * Copy channel content chunk by chunk, failing as soon as more than maxFileSize bytes arrive.
+     */
+    private long transfer(ReadableByteChannel in, FileChannel out) throws IOException {
+        long position = 0;
+        while (true) {
+            // Allow one byte past the limit so an oversized upload is detected without reading it all
+            long count = Math.min(TRANSFER_CHUNK_SIZE, maxFileSize + 1 - position);
+            long transferred = out.transferFrom(in, position, count);
+            if (transferred <= 0) {
+                return position;
+            }
+            position += transferred;
+            if (position > maxFileSize) {
+                throw new IllegalArgumentException(
+                        String.format("File size exceeds maximum allowed size: %d bytes", maxFileSize)
+                );
+            }
+        }
+    }
+
+    private Path createUploadPath(String subdirectory) throws IOException {
+        Path uploadPath = subdirectory == null ? Paths.get(uploadDirectory) : Paths.get(uploadDirectory, subdirectory);
+        if (!Files.exists(uploadPath)) {
+            Files.createDirectories(uploadPath);
+        }
+        return uploadPath;
+    }
+
+    /**
+     * Hex SHA-256 of a file, read once.
+     */
+    private static String hash(Path path) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(path), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Remove a partially written file; a failure to do so is attached to the original error.
+     */
+    private static void discard(Path partPath, Exception cause) {
+        try {
+            Files.deleteIfExists(partPath);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Delete a content-addressed upload; the shared content is removed with its last reference.
+     */
+    public boolean deleteFile(String filePath, String sha256) {
+        if (!contentAddressed || sha256 == null) {
+            return deleteFile(filePath);
+        }
+        return contentStore.release(sha256, filePath);
+    }
+
     /**
      * Get file extension.
      */
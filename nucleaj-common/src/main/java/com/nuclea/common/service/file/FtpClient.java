@@ -1,74 +1,86 @@
 package com.nuclea.common.service.file;
 
-import com.nuclea.common.service.marker.IScopedService;
+import com.nuclea.common.service.marker.ISingletonService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.net.ftp.FTP;
 import org.apache.commons.net.ftp.FTPClient;
-import org.apache.commons.net.ftp.FTPReply;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * FTP client service for CDN file operations.
+ * Operations run on pooled sessions; remote directories already created are remembered.
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
-public class FtpClient implements IScopedService {
+public class FtpClient implements ISingletonService {
 
-    @Value("${app.ftp.host:}")
-    private String ftpHost;
-
-    @Value("${app.ftp.port:21}")
-    private int ftpPort;
-
-    @Value("${app.ftp.username:}")
-    private String ftpUsername;
-
-    @Value("${app.ftp.password:}")
-    private String ftpPassword;
+    private final FtpConnectionPool connectionPool;
+    private final Set<String> knownDirectories = ConcurrentHashMap.newKeySet();
 
     /**
      * Upload file to FTP server.
      */
     public boolean uploadFile(String localFilePath, String remoteFilePath) {
-        FTPClient ftpClient = new FTPClient();
         try {
-            ftpClient.connect(ftpHost, ftpPort);
-            int replyCode = ftpClient.getReplyCode();
-
-            if (!FTPReply.isPositiveCompletion(replyCode)) {
-                log.error("FTP server connection failed. Reply code: {}", replyCode);
-                return false;
-            }
-
-            boolean login = ftpClient.login(ftpUsername, ftpPassword);
-            if (!login) {
-                log.error("FTP login failed");
-                return false;
-            }
+            return connectionPool.withSession(ftpClient -> store(ftpClient, localFilePath, remoteFilePath));
+        } catch (IOException e) {
+            log.error("Error uploading file to FTP: {}", e.getMessage(), e);
+            return false;
+        }
+    }
 
-            ftpClient.enterLocalPassiveMode();
-            ftpClient.setFileType(FTP.BINARY_FILE_TYPE);
+    /**
+     * Upload many files over a single session.
+     *
+     * @param files local path to remote path, uploaded in iteration order
+     * @return upload result per remote path
+     */
+    public Map<String, Boolean> uploadFiles(Map<String, String> files) {
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        try {
+            connectionPool.withSession(ftpClient -> {
+                for (Map.Entry<String, String> file : files.entrySet()) {
+                    try {
+                        results.put(file.getValue(), store(ftpClient, file.getKey(), file.getValue()));
+                    } catch (FileNotFoundException e) {
+                        log.error("Local file not found for FTP upload: {}", file.getKey());
+                        results.put(file.getValue(), false);
+                    }
+                }
+                return null;
+            });
+        } catch (IOException e) {
+            log.error("Error in FTP batch upload after {} of {} files: {}", results.size(), files.size(), e.getMessage(), e);
+        }
 
-            // Create remote directories if needed
-            createRemoteDirectories(ftpClient, remoteFilePath);
+        files.values().forEach(remotePath -> results.putIfAbsent(remotePath, false));
+        return results;
+    }
 
-            try (InputStream inputStream = new FileInputStream(localFilePath)) {
-                boolean uploaded = ftpClient.storeFile(remoteFilePath, inputStream);
-                if (uploaded) {
-                    log.info("File uploaded successfully to FTP: {}", remoteFilePath);
-                } else {
-                    log.error("File upload failed to FTP: {}", remoteFilePath);
+    /**
+     * Upload file unless the remote path already holds a file of the expected size.
+     * Meant for content-addressed paths, where same path and size means same content.
+     */
+    public boolean uploadFileIfAbsent(String localFilePath, String remoteFilePath, long expectedSize) {
+        try {
+            return connectionPool.withSession(ftpClient -> {
+                String remoteSize = ftpClient.getSize(remoteFilePath);
+                if (remoteSize != null && remoteSize.trim().equals(String.valueOf(expectedSize))) {
+                    log.info("File already on FTP, upload skipped: {}", remoteFilePath);
+                    return true;
                 }
-                return uploaded;
-            }
+                return store(ftpClient, localFilePath, remoteFilePath);
+            });
         } catch (IOException e) {
             log.error("Error uploading file to FTP: {}", e.getMessage(), e);
             return false;
-        } finally {
-            disconnectFtp(ftpClient);
         }
     }
 
@@ -76,27 +88,21 @@ public class FtpClient implements IScopedService {
      * Download file from FTP server.
      */
     public boolean downloadFile(String remoteFilePath, String localFilePath) {
-        FTPClient ftpClient = new FTPClient();
         try {
-            ftpClient.connect(ftpHost, ftpPort);
-            ftpClient.login(ftpUsername, ftpPassword);
-            ftpClient.enterLocalPassiveMode();
-            ftpClient.setFileType(FTP.BINARY_FILE_TYPE);
-
-            try (OutputStream outputStream = new FileOutputStream(localFilePath)) {
-                boolean downloaded = ftpClient.retrieveFile(remoteFilePath, outputStream);
-                if (downloaded) {
-                    log.info("File downloaded successfully from FTP: {}", remoteFilePath);
-                } else {
-                    log.error("File download failed from FTP: {}", remoteFilePath);
+            return connectionPool.withSession(ftpClient -> {
+                try (OutputStream outputStream = new FileOutputStream(localFilePath)) {
+                    boolean downloaded = ftpClient.retrieveFile(remoteFilePath, outputStream);
+                    if (downloaded) {
+                        log.info("File downloaded successfully from FTP: {}", remoteFilePath);
+                    } else {
+                        log.error("File download failed from FTP: {}", remoteFilePath);
+                    }
+                    return downloaded;
                 }
-                return downloaded;
-            }
+            });
         } catch (IOException e) {
             log.error("Error downloading file from FTP: {}", e.getMessage(), e);
             return false;
-        } finally {
-            disconnectFtp(ftpClient);
         }
     }
 
@@ -104,30 +110,50 @@ public class FtpClient implements IScopedService {
      * Delete file from FTP server.
      */
     public boolean deleteFile(String remoteFilePath) {
-        FTPClient ftpClient = new FTPClient();
         try {
-            ftpClient.connect(ftpHost, ftpPort);
-            ftpClient.login(ftpUsername, ftpPassword);
-
-            boolean deleted = ftpClient.deleteFile(remoteFilePath);
-            if (deleted) {
-                log.info("File deleted successfully from FTP: {}", remoteFilePath);
-            } else {
-                log.error("File deletion failed from FTP: {}", remoteFilePath);
-            }
-            return deleted;
+            return connectionPool.withSession(ftpClient -> {
+                boolean deleted = ftpClient.deleteFile(remoteFilePath);
+                if (deleted) {
+                    log.info("File deleted successfully from FTP: {}", remoteFilePath);
+                } else {
+                    log.error("File deletion failed from FTP: {}", remoteFilePath);
+                }
+                return deleted;
+            });
         } catch (IOException e) {
             log.error("Error deleting file from FTP: {}", e.getMessage(), e);
             return false;
-        } finally {
-            disconnectFtp(ftpClient);
         }
     }
 
     /**
-     * Create remote directories recursively.
+     * Store a local file on the given session, creating remote directories first.
      */
-    private void createRemoteDirectories(FTPClient ftpClient, String remotePath) throws IOException {
+    private boolean store(FTPClient ftpClient, String localFilePath, String remoteFilePath) throws IOException {
+        createRemoteDirectories(ftpClient, remoteFilePath);
+
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(localFilePath))) {
+            boolean uploaded = ftpClient.storeFile(remoteFilePath, inputStream);
+            if (uploaded) {
+                log.info("File uploaded successfully to FTP: {}", remoteFilePath);
+            } else {
+                log.error("File upload failed to FTP: {}", remoteFilePath);
+            }
+            return uploaded;
+        }
+    }
+
+    /**
+     * Create remote directories recursively, skipping directories known to exist.
+     * Uses absolute paths, and restores the working directory after an existence check, so the pooled
+     * session's working directory is left untouched.
+     */
+    void createRemoteDirectories(FTPClient ftpClient, String remotePath) throws IOException {
+        int lastSlash = remotePath.lastIndexOf('/');
+        if (lastSlash <= 0 || knownDirectories.contains(remotePath.substring(0, lastSlash))) {
+            return;
+        }
+
         String[] directories = remotePath.split("/");
         StringBuilder path = new StringBuilder();
 
@@ -137,24 +163,25 @@ public class FtpClient implements IScopedService {
             path.append("/").append(directories[i]);
             String currentPath = path.toString();
 
-            if (!ftpClient.changeWorkingDirectory(currentPath)) {
-                ftpClient.makeDirectory(currentPath);
-                ftpClient.changeWorkingDirectory(currentPath);
+            // MKD also fails when the directory already exists; only a confirmed directory is remembered
+            if (!knownDirectories.contains(currentPath)
+                    && (ftpClient.makeDirectory(currentPath) || directoryExists(ftpClient, currentPath))) {
+                knownDirectories.add(currentPath);
             }
         }
     }
 
     /**
-     * Disconnect from FTP server.
+     * Whether the path is an existing directory on the server.
      */
-    private void disconnectFtp(FTPClient ftpClient) {
-        try {
-            if (ftpClient.isConnected()) {
-                ftpClient.logout();
-                ftpClient.disconnect();
-            }
-        } catch (IOException e) {
-            log.error("Error disconnecting from FTP: {}", e.getMessage());
+    private static boolean directoryExists(FTPClient ftpClient, String path) throws IOException {
+        String workingDirectory = ftpClient.printWorkingDirectory();
+        if (!ftpClient.changeWorkingDirectory(path)) {
+            return false;
+        }
+        if (workingDirectory != null) {
+            ftpClient.changeWorkingDirectory(workingDirectory);
         }
+        return true;
     }
 }
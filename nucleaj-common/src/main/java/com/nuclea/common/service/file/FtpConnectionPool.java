@@ -0,0 +1,191 @@
+package com.nuclea.common.service.file;
+
+import com.nuclea.common.service.marker.ISingletonService;
+import com.nuclea.common.service.resilience.ResilienceGuard;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.net.ftp.FTP;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPReply;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Bounded pool of logged-in FTP sessions.
+ * Sessions are checked with NOOP before use and closed after sitting idle for {@code app.ftp.pool.idle-timeout}.
+ * Work runs under the {@code ftp} circuit breaker; while it is open calls fail immediately with an IOException.
+ */
+@Component
+@Slf4j
+public class FtpConnectionPool implements ISingletonService {
+
+    /**
+     * Work executed on a pooled session.
+     */
+    @FunctionalInterface
+    public interface FtpSessionCallback<T> {
+        T doInSession(FTPClient ftpClient) throws IOException;
+    }
+
+    private final GenericObjectPool<FTPClient> pool;
+    private final ResilienceGuard resilienceGuard;
+
+    public FtpConnectionPool(
+            @Value("${app.ftp.host:}") String host,
+            @Value("${app.ftp.port:21}") int port,
+            @Value("${app.ftp.username:}") String username,
+            @Value("${app.ftp.password:}") String password,
+            @Value("${app.ftp.pool.max-total:4}") int maxTotal,
+            @Value("${app.ftp.pool.max-wait:10s}") Duration maxWait,
+            @Value("${app.ftp.pool.idle-timeout:2m}") Duration idleTimeout,
+            @Value("${app.ftp.connect-timeout:10s}") Duration connectTimeout,
+            @Value("${app.ftp.data-timeout:60s}") Duration dataTimeout,
+            ResilienceGuard resilienceGuard
+    ) {
+        this.resilienceGuard = resilienceGuard;
+
+        GenericObjectPoolConfig<FTPClient> config = new GenericObjectPoolConfig<>();
+        config.setMaxTotal(maxTotal);
+        config.setMaxIdle(maxTotal);
+        config.setMinIdle(0);
+        config.setMaxWait(maxWait);
+        config.setTestOnBorrow(true);
+        config.setMinEvictableIdleDuration(idleTimeout);
+        config.setTimeBetweenEvictionRuns(idleTimeout.dividedBy(2));
+        config.setJmxEnabled(false);
+
+        this.pool = new GenericObjectPool<>(
+                new SessionFactory(host, port, username, password, connectTimeout, dataTimeout), config);
+    }
+
+    /**
+     * Run work on a pooled session. Sessions that fail with an I/O error are discarded instead of returned.
+     */
+    public <T> T withSession(FtpSessionCallback<T> callback) throws IOException {
+        try {
+            return resilienceGuard.execute(ResilienceGuard.FTP, () -> borrowAndRun(callback));
+        } catch (RuntimeException e) {
+            if (ResilienceGuard.isRejected(e)) {
+                throw new IOException("FTP unavailable: " + e.getMessage(), e);
+            }
+            throw e;
+        }
+    }
+
+    private <T> T borrowAndRun(FtpSessionCallback<T> callback) throws IOException {
+        FTPClient ftpClient;
+        try {
+            ftpClient = pool.borrowObject();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Could not obtain FTP session: " + e.getMessage(), e);
+        }
+
+        try {
+            T result = callback.doInSession(ftpClient);
+            pool.returnObject(ftpClient);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            invalidate(ftpClient);
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.close();
+    }
+
+    private void invalidate(FTPClient ftpClient) {
+        try {
+            pool.invalidateObject(ftpClient);
+        } catch (Exception e) {
+            log.debug("Error invalidating FTP session: {}", e.getMessage());
+        }
+    }
+
+    private static final class SessionFactory extends BasePooledObjectFactory<FTPClient> {
+
+        private final String host;
+        private final int port;
+        private final String username;
+        private final String password;
+        private final Duration connectTimeout;
+        private final Duration dataTimeout;
+
+        private SessionFactory(String host, int port, String username, String password,
+                               Duration connectTimeout, Duration dataTimeout) {
+            this.host = host;
+            this.port = port;
+            this.username = username;
+            this.password = password;
+            this.connectTimeout = connectTimeout;
+            this.dataTimeout = dataTimeout;
+        }
+
+        @Override
+        public FTPClient create() throws IOException {
+            FTPClient ftpClient = new FTPClient();
+            // Bound every blocking step so a stalled server cannot hold a thread for the OS TCP timeout
+            ftpClient.setConnectTimeout((int) connectTimeout.toMillis());
+            ftpClient.setDefaultTimeout((int) dataTimeout.toMillis());
+            ftpClient.setDataTimeout(dataTimeout);
+            try {
+                ftpClient.connect(host, port);
+                int replyCode = ftpClient.getReplyCode();
+                if (!FTPReply.isPositiveCompletion(replyCode)) {
+                    throw new IOException("FTP server connection failed. Reply code: " + replyCode);
+                }
+                if (!ftpClient.login(username, password)) {
+                    throw new IOException("FTP login failed");
+                }
+
+                ftpClient.enterLocalPassiveMode();
+                ftpClient.setFileType(FTP.BINARY_FILE_TYPE);
+                return ftpClient;
+            } catch (IOException e) {
+                disconnect(ftpClient);
+                throw e;
+            }
+        }
+
+        @Override
+        public PooledObject<FTPClient> wrap(FTPClient ftpClient) {
+            return new DefaultPooledObject<>(ftpClient);
+        }
+
+        @Override
+        public boolean validateObject(PooledObject<FTPClient> pooledObject) {
+            try {
+                return pooledObject.getObject().isConnected() && pooledObject.getObject().sendNoOp();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void destroyObject(PooledObject<FTPClient> pooledObject) {
+            disconnect(pooledObject.getObject());
+        }
+
+        private static void disconnect(FTPClient ftpClient) {
+            try {
+                if (ftpClient.isConnected()) {
+                    ftpClient.logout();
+                    ftpClient.disconnect();
+                }
+            } catch (IOException e) {
+                log.debug("Error disconnecting from FTP: {}", e.getMessage());
+            }
+        }
+    }
+}
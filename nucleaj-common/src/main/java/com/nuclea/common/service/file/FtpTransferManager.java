@@ -0,0 +1,318 @@
+package com.nuclea.common.service.file;
+
+import com.nuclea.common.service.marker.ISingletonService;
+import com.nuclea.common.service.resilience.ResilienceGuard;
+import com.nuclea.common.util.ThreadFactories;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.net.ftp.FTPClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes many files to the CDN concurrently over pooled FTP sessions.
+ * <p>
+ * Files are written to {@code <path>.part} and renamed into place once complete, so a partial upload is
+ * never mistaken for the file itself; an interrupted {@code .part} is resumed with APPE from its size
+ * instead of being sent again. A file whose remote copy has the local size and is not older than the local
+ * file (MDTM) is skipped. After every upload the size is compared with the local size, and failed or short
+ * transfers are retried (resuming) up to {@code app.ftp.transfer.max-attempts} times, waiting
+ * {@code app.ftp.transfer.retry-backoff} longer before each retry. Once the {@code ftp} circuit breaker is open the file fails without further attempts.
+ * <p>
+ * A missing or unreadable local file fails at once, without retries and without borrowing an FTP session. Every
+ * failure of a file ends up as a FAILED result in the report, so one bad file never aborts the whole transfer.
+ */
+@Service
+@Slf4j
+public class FtpTransferManager implements ISingletonService {
+
+    private static final String PART_SUFFIX = ".part";
+    private static final DateTimeFormatter MFMT_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss")
+            .withZone(ZoneOffset.UTC);
+
+    private final FtpConnectionPool connectionPool;
+    private final FtpClient ftpClient;
+    private final ThreadPoolExecutor workers;
+    private final int parallelism;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final MeterRegistry meterRegistry;
+
+    public FtpTransferManager(
+            FtpConnectionPool connectionPool,
+            FtpClient ftpClient,
+            ObjectProvider<MeterRegistry> meterRegistryProvider,
+            @Value("${app.ftp.transfer.parallelism:${app.ftp.pool.max-total:4}}") int parallelism,
+            @Value("${app.ftp.transfer.max-attempts:3}") int maxAttempts,
+            @Value("${app.ftp.transfer.retry-backoff:2s}") Duration retryBackoff,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.connectionPool = connectionPool;
+        this.ftpClient = ftpClient;
+        this.meterRegistry = meterRegistryProvider.getIfAvailable();
+        this.parallelism = Math.max(1, parallelism);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+
+        // Workers only wait on sockets, so they can be virtual threads
+        this.workers = new ThreadPoolExecutor(
+                this.parallelism, this.parallelism,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.parallelism * 4),
+                ThreadFactories.named("ftp-transfer", virtualThreads),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Upload all files and wait for completion.
+     *
+     * @param files local path to remote path
+     */
+    public FtpTransferReport uploadAll(Map<String, String> files) {
+        long startedAt = System.currentTimeMillis();
+        List<Map.Entry<String, String>> entries = new ArrayList<>(files.entrySet());
+        FtpTransferReport.FileResult[] results = new FtpTransferReport.FileResult[entries.size()];
+        AtomicInteger nextIndex = new AtomicInteger();
+
+        int taskCount = Math.min(parallelism, entries.size());
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            Runnable worker = () -> {
+                int index;
+                while ((index = nextIndex.getAndIncrement()) < entries.size()) {
+                    Map.Entry<String, String> entry = entries.get(index);
+                    results[index] = upload(entry.getKey(), entry.getValue());
+                }
+            };
+            try {
+                tasks.add(CompletableFuture.runAsync(worker, workers));
+            } catch (RejectedExecutionException e) {
+                // Pool busy with another transfer; the caller thread takes a share of the work
+                worker.run();
+            }
+        }
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+
+        long bytes = Arrays.stream(results).mapToLong(FtpTransferReport.FileResult::bytesTransferred).sum();
+        FtpTransferReport report = new FtpTransferReport(Arrays.asList(results), bytes, System.currentTimeMillis() - startedAt);
+        log.info("FTP transfer finished: {} uploaded, {} resumed, {} skipped, {} failed, {} bytes in {} ms ({} KB/s)",
+                report.count(FtpTransferReport.Status.UPLOADED), report.count(FtpTransferReport.Status.RESUMED),
+                report.count(FtpTransferReport.Status.SKIPPED), report.count(FtpTransferReport.Status.FAILED),
+                bytes, report.elapsedMillis(), String.format("%.1f", report.bytesPerSecond() / 1024));
+        return report;
+    }
+
+    /**
+     * Upload one file, resuming from whatever reached the server on earlier attempts.
+     */
+    public FtpTransferReport.FileResult upload(String localFilePath, String remoteFilePath) {
+        long startedAt = System.nanoTime();
+        long sent = 0;
+        boolean resumed = false;
+        String error = null;
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            // Read before every attempt, as the file may have changed since the last one
+            LocalFile localFile;
+            try {
+                localFile = LocalFile.read(localFilePath);
+            } catch (IOException | RuntimeException e) {
+                error = "Cannot read local file: " + e.getMessage();
+                log.warn("FTP upload of {} failed: {}", remoteFilePath, error);
+                break;
+            }
+
+            try {
+                Attempt result = connectionPool.withSession(session -> transfer(session, localFile, remoteFilePath));
+                sent += result.bytesSent();
+                resumed |= result.resumed();
+
+                FtpTransferReport.Status status = sent == 0 ? FtpTransferReport.Status.SKIPPED
+                        : resumed ? FtpTransferReport.Status.RESUMED : FtpTransferReport.Status.UPLOADED;
+                record(status, sent, startedAt);
+                return new FtpTransferReport.FileResult(localFilePath, remoteFilePath, status, sent, null);
+            } catch (IOException | RuntimeException e) {
+                error = e.getMessage();
+                log.warn("FTP upload of {} failed (attempt {}/{}): {}", remoteFilePath, attempt, maxAttempts, error);
+                if (!isRetryable(e) || attempt == maxAttempts || !backOff(attempt)) {
+                    break;
+                }
+            }
+        }
+
+        record(FtpTransferReport.Status.FAILED, sent, startedAt);
+        return new FtpTransferReport.FileResult(localFilePath, remoteFilePath, FtpTransferReport.Status.FAILED, sent, error);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Only FTP I/O failures are retried: local file errors and unexpected runtime failures would fail the same
+     * way again, and while the breaker is open there is no point in trying.
+     */
+    private static boolean isRetryable(Exception e) {
+        return e instanceof IOException
+                && !(e instanceof FileSystemException)
+                && !ResilienceGuard.isRejected(e.getCause());
+    }
+
+    /**
+     * Wait before the next attempt; false when interrupted.
+     */
+    private boolean backOff(int attempt) {
+        try {
+            Thread.sleep(retryBackoff.multipliedBy(attempt));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Attempt transfer(FTPClient session, LocalFile localFile, String remoteFilePath) throws IOException {
+        Path localPath = localFile.path();
+        long localSize = localFile.size();
+        Instant localModified = localFile.modified();
+
+        if (isUpToDate(session, remoteFilePath, localSize, localModified)) {
+            return new Attempt(0, false);
+        }
+
+        ftpClient.createRemoteDirectories(session, remoteFilePath);
+
+        // Partial content only ever lives under the .part name, so it was written by this manager; it is
+        // resumed unless it is older than the local file (then it belongs to a previous version)
+        String partFilePath = remoteFilePath + PART_SUFFIX;
+        long partSize = remoteSize(session, partFilePath);
+        Instant partModified = partSize > 0 ? remoteModified(session, partFilePath) : null;
+        long offset = partSize > 0 && partSize < localSize && partModified != null && !partModified.isBefore(localModified)
+                ? partSize
+                : 0;
+
+        boolean stored;
+        try (FileChannel channel = FileChannel.open(localPath, StandardOpenOption.READ)) {
+            channel.position(offset);
+            InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+            stored = offset > 0 ? session.appendFile(partFilePath, in) : session.storeFile(partFilePath, in);
+        }
+        if (!stored) {
+            throw new IOException("Server rejected transfer: " + session.getReplyString().trim());
+        }
+
+        long verifiedSize = remoteSize(session, partFilePath);
+        if (verifiedSize != localSize) {
+            throw new IOException(String.format("Size mismatch after upload: local %d, remote %d", localSize, verifiedSize));
+        }
+
+        // Some servers refuse to rename over an existing file
+        if (!session.rename(partFilePath, remoteFilePath)
+                && !(session.deleteFile(remoteFilePath) && session.rename(partFilePath, remoteFilePath))) {
+            throw new IOException("Could not move upload into place: " + session.getReplyString().trim());
+        }
+        // Best effort (MFMT): lets the next sync compare modification times exactly
+        session.setModificationTime(remoteFilePath, MFMT_FORMAT.format(localModified));
+        return new Attempt(localSize - offset, offset > 0);
+    }
+
+    /**
+     * Whether the remote file has the local size and was modified no earlier than the local file.
+     * Without MDTM support the size alone is not trusted and the file is uploaded again.
+     */
+    private static boolean isUpToDate(FTPClient session, String remoteFilePath, long localSize, Instant localModified)
+            throws IOException {
+        if (remoteSize(session, remoteFilePath) != localSize) {
+            return false;
+        }
+        Instant remoteModified = remoteModified(session, remoteFilePath);
+        return remoteModified != null && !remoteModified.isBefore(localModified);
+    }
+
+    /**
+     * Remote modification time via MDTM, or null when unknown.
+     */
+    private static Instant remoteModified(FTPClient session, String remoteFilePath) throws IOException {
+        Instant modified = session.mdtmInstant(remoteFilePath);
+        return modified != null ? modified.truncatedTo(ChronoUnit.SECONDS) : null;
+    }
+
+    /**
+     * Remote file size via SIZE, or -1 when the file does not exist.
+     */
+    private static long remoteSize(FTPClient session, String remoteFilePath) throws IOException {
+        String size = session.getSize(remoteFilePath);
+        if (size == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(size.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void record(FtpTransferReport.Status status, long bytes, long startedAtNanos) {
+        if (meterRegistry == null) {
+            return;
+        }
+        String result = status.name().toLowerCase();
+        Timer.builder("nuclea.ftp.transfers")
+                .description("CDN file transfers")
+                .tag("result", result)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedAtNanos, TimeUnit.NANOSECONDS);
+        Counter.builder("nuclea.ftp.transfer.bytes")
+                .description("Bytes sent to the CDN")
+                .baseUnit("bytes")
+                .register(meterRegistry)
+                .increment(bytes);
+    }
+
+    private record Attempt(long bytesSent, boolean resumed) {
+    }
+
+    /**
+     * Size and modification time (truncated to seconds, the MDTM precision) of the file to upload.
+     */
+    private record LocalFile(Path path, long size, Instant modified) {
+
+        static LocalFile read(String localFilePath) throws IOException {
+            Path path = Paths.get(localFilePath);
+            return new LocalFile(path, Files.size(path),
+                    Files.getLastModifiedTime(path).toInstant().truncatedTo(ChronoUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.nuclea.common.service.file;
+
+import java.util.List;
+
+/**
+ * Outcome of a multi-file FTP transfer.
+ *
+ * @param results          per-file results in input order
+ * @param bytesTransferred bytes actually sent (resumed files count only the remainder)
+ * @param elapsedMillis    wall time of the whole transfer
+ */
+public record FtpTransferReport(List<FileResult> results, long bytesTransferred, long elapsedMillis) {
+
+    public long count(Status status) {
+        return results.stream().filter(result -> result.status() == status).count();
+    }
+
+    public double bytesPerSecond() {
+        return elapsedMillis > 0 ? bytesTransferred * 1000.0 / elapsedMillis : 0.0;
+    }
+
+    public enum Status {
+        UPLOADED,
+        RESUMED,
+        SKIPPED,
+        FAILED
+    }
+
+    /**
+     * Result for a single file.
+     *
+     * @param localPath        local file
+     * @param remotePath       remote target
+     * @param status           what happened
+     * @param bytesTransferred bytes sent for this file
+     * @param error            failure reason, null unless FAILED
+     */
+    public record FileResult(String localPath, String remotePath, Status status, long bytesTransferred, String error) {
+    }
+}
@@ -0,0 +1,296 @@
+package com.nuclea.common.service.jwt;
+
+import com.nuclea.common.config.JwtProperties;
+import com.nuclea.common.service.marker.ISingletonService;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * kid-indexed JWT key ring for RS256/ES256.
+ * <p>
+ * Rotation without downtime: add the new key to {@code jwt.keys} (it is published in the JWKS and
+ * accepted for validation), then switch {@code jwt.active-key-id} to it, and drop the old key once
+ * tokens signed with it have expired. Key files and the remote JWKS are re-read periodically.
+ * <p>
+ * With HS256 the ring is empty and {@link JwtService} keeps using the shared secret. After switching from
+ * HS256, tokens signed with the shared secret are only accepted when {@code jwt.legacy-hmac-switched-at}
+ * is set, only if issued before that time, and only until the longest refresh token issued then expired.
+ */
+@Component
+@Slf4j
+public class JwtKeyRing implements ISingletonService {
+
+    private static final Duration REMOTE_REFRESH_MIN_INTERVAL = Duration.ofSeconds(30);
+
+    private final JwtProperties jwtProperties;
+    private final ResourceLoader resourceLoader;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private volatile Map<String, PublicKey> localKeys = Map.of();
+    private volatile Map<String, Key> remoteKeys = Map.of();
+    private volatile PrivateKey activePrivateKey;
+    private volatile Map<String, Object> jwks = Map.of("keys", List.of());
+    private volatile long lastRemoteRefresh;
+    // A lock rather than synchronized: the refresh does HTTP I/O, which would pin a virtual thread in a monitor
+    private final ReentrantLock remoteRefreshLock = new ReentrantLock();
+    private SecretKey legacySecretKey;
+    private Instant legacyAcceptUntil;
+
+    public JwtKeyRing(JwtProperties jwtProperties, ResourceLoader resourceLoader) {
+        this.jwtProperties = jwtProperties;
+        this.resourceLoader = resourceLoader;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!isAsymmetric()) {
+            return;
+        }
+
+        Instant switchedAt = jwtProperties.getLegacyHmacSwitchedAt();
+        String secret = jwtProperties.getSecretKey();
+        if (switchedAt != null && secret != null && !secret.isBlank()) {
+            legacyAcceptUntil = switchedAt
+                    .plus(Duration.ofDays(jwtProperties.getRefreshTokenExpirationDays()))
+                    .plus(Duration.ofMinutes(jwtProperties.getClockSkewMinutes()));
+            if (Instant.now().isBefore(legacyAcceptUntil)) {
+                legacySecretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+                log.info("Accepting shared-secret JWTs issued before {} until {}", switchedAt, legacyAcceptUntil);
+            }
+        }
+
+        loadLocalKeys();
+        refreshRemoteKeys();
+        log.info("JWT key ring initialized ({}, active key: {}, keys: {})",
+                jwtProperties.getAlgorithm(), jwtProperties.getActiveKeyId(), localKeys.keySet());
+    }
+
+    /**
+     * Re-read key files and the remote JWKS so rotated keys are picked up without a restart.
+     */
+    @Scheduled(
+            fixedDelayString = "${jwt.key-reload-interval-ms:300000}",
+            initialDelayString = "${jwt.key-reload-interval-ms:300000}"
+    )
+    public void reload() {
+        if (!isAsymmetric()) {
+            return;
+        }
+        try {
+            loadLocalKeys();
+        } catch (RuntimeException e) {
+            log.error("Error reloading JWT keys, keeping current key ring: {}", e.getMessage());
+        }
+        refreshRemoteKeys();
+    }
+
+    public boolean isAsymmetric() {
+        return !jwtProperties.getAlgorithm().toUpperCase().startsWith("HS");
+    }
+
+    public SignatureAlgorithm signatureAlgorithm() {
+        return switch (jwtProperties.getAlgorithm().toUpperCase()) {
+            case "RS256" -> Jwts.SIG.RS256;
+            case "ES256" -> Jwts.SIG.ES256;
+            default -> throw new IllegalStateException("Unsupported JWT algorithm: " + jwtProperties.getAlgorithm());
+        };
+    }
+
+    public String activeKeyId() {
+        return jwtProperties.getActiveKeyId();
+    }
+
+    /**
+     * Private key of the active entry; null on validation-only nodes.
+     */
+    public PrivateKey activePrivateKey() {
+        return activePrivateKey;
+    }
+
+    /**
+     * Public keys of the ring as a JWK Set document.
+     */
+    public Map<String, Object> jwks() {
+        return jwks;
+    }
+
+    /**
+     * Whether a token signed with the shared secret (no kid) may still be accepted given its issue time.
+     */
+    public boolean acceptsLegacyToken(Date issuedAt) {
+        Instant switchedAt = jwtProperties.getLegacyHmacSwitchedAt();
+        return legacyKeyUsable() && issuedAt != null && switchedAt != null && !issuedAt.toInstant().isAfter(switchedAt);
+    }
+
+    /**
+     * Key locator resolving the verification key from the token's {@code kid} header.
+     */
+    public LocatorAdapter<Key> locator() {
+        return new LocatorAdapter<>() {
+            @Override
+            protected Key locate(JwsHeader header) {
+                return findKey(header);
+            }
+        };
+    }
+
+    private Key findKey(JwsHeader header) {
+        String keyId = header.getKeyId();
+        if (keyId == null) {
+            String algorithm = header.getAlgorithm();
+            return algorithm != null && algorithm.startsWith("HS") && legacyKeyUsable() ? legacySecretKey : null;
+        }
+
+        Key key = localKeys.get(keyId);
+        if (key == null) {
+            key = remoteKeys.get(keyId);
+        }
+        if (key == null && jwtProperties.getJwksUri() != null) {
+            // Unknown kid: the issuer may have rotated since our last refresh
+            refreshRemoteKeys();
+            key = remoteKeys.get(keyId);
+        }
+        return key;
+    }
+
+    private boolean legacyKeyUsable() {
+        return legacySecretKey != null && Instant.now().isBefore(legacyAcceptUntil);
+    }
+
+    private void loadLocalKeys() {
+        Map<String, PublicKey> publicKeys = new HashMap<>();
+        List<Map<String, ?>> publishedKeys = new ArrayList<>();
+        PrivateKey privateKey = null;
+
+        for (JwtProperties.SigningKey signingKey : jwtProperties.getKeys()) {
+            PublicKey publicKey = readPublicKey(signingKey.getPublicKeyLocation());
+            publicKeys.put(signingKey.getId(), publicKey);
+            publishedKeys.add(Jwks.builder().key(publicKey).id(signingKey.getId()).build());
+
+            if (signingKey.getId().equals(jwtProperties.getActiveKeyId()) && signingKey.getPrivateKeyLocation() != null) {
+                privateKey = readPrivateKey(signingKey.getPrivateKeyLocation());
+            }
+        }
+
+        localKeys = Map.copyOf(publicKeys);
+        activePrivateKey = privateKey;
+        jwks = Map.of("keys", List.copyOf(publishedKeys));
+    }
+
+    private void refreshRemoteKeys() {
+        remoteRefreshLock.lock();
+        try {
+            loadRemoteKeys();
+        } finally {
+            remoteRefreshLock.unlock();
+        }
+    }
+
+    private void loadRemoteKeys() {
+        String jwksUri = jwtProperties.getJwksUri();
+        long now = System.nanoTime();
+        if (jwksUri == null || jwksUri.isBlank()
+                || (lastRemoteRefresh != 0 && now - lastRemoteRefresh < REMOTE_REFRESH_MIN_INTERVAL.toNanos())) {
+            return;
+        }
+        lastRemoteRefresh = now;
+
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(jwksUri))
+                    .timeout(Duration.ofSeconds(5))
+                    .GET()
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                log.error("Error loading JWKS from {}: HTTP {}", jwksUri, response.statusCode());
+                return;
+            }
+
+            JwkSet jwkSet = Jwks.setParser().build().parse(response.body());
+            Map<String, Key> keys = new HashMap<>();
+            for (Jwk<?> jwk : jwkSet.getKeys()) {
+                if (jwk.getId() != null) {
+                    keys.put(jwk.getId(), jwk.toKey());
+                }
+            }
+            remoteKeys = Map.copyOf(keys);
+            log.debug("Loaded {} JWT keys from {}", keys.size(), jwksUri);
+        } catch (IOException | RuntimeException e) {
+            log.error("Error loading JWKS from {}: {}", jwksUri, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private PublicKey readPublicKey(String location) {
+        try {
+            return keyFactory().generatePublic(new X509EncodedKeySpec(readPem(location)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid JWT public key: " + location, e);
+        }
+    }
+
+    private PrivateKey readPrivateKey(String location) {
+        try {
+            return keyFactory().generatePrivate(new PKCS8EncodedKeySpec(readPem(location)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid JWT private key: " + location, e);
+        }
+    }
+
+    private KeyFactory keyFactory() throws GeneralSecurityException {
+        return KeyFactory.getInstance(jwtProperties.getAlgorithm().toUpperCase().startsWith("ES") ? "EC" : "RSA");
+    }
+
+    /**
+     * Read the DER bytes of a PEM file (PKCS#8 private key or X.509 public key).
+     */
+    private byte[] readPem(String location) {
+        Resource resource = resourceLoader.getResource(location);
+        try {
+            String pem = resource.getContentAsString(StandardCharsets.UTF_8);
+            String base64 = pem.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+            return Base64.getDecoder().decode(base64);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read JWT key: " + location, e);
+        }
+    }
+}
@@ -6,12 +6,14 @@ import com.nuclea.common.model.JwtTokenPair;
 import com.nuclea.common.service.marker.ISingletonService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.PrivateKey;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
@@ -21,6 +23,7 @@ import java.util.UUID;
 
 /**
  * JWT service implementation using jjwt library.
+ * Signs with the shared secret (HS256) or with the active key of {@link JwtKeyRing} (RS256/ES256).
  */
 @Service
 @RequiredArgsConstructor
@@ -28,13 +31,45 @@ import java.util.UUID;
 public class JwtService implements IJwtService, ISingletonService {
 
     private final JwtProperties jwtProperties;
+    private final JwtKeyRing keyRing;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
 
     /**
-     * Get signing key from secret.
+     * Derive the signing key and build the (thread-safe) parser once.
      */
-    private SecretKey getSigningKey() {
+    @PostConstruct
+    public void init() {
+        if (keyRing.isAsymmetric()) {
+            parser = Jwts.parser()
+                    .keyLocator(keyRing.locator())
+                    .build();
+            return;
+        }
+
         byte[] keyBytes = jwtProperties.getSecretKey().getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        signingKey = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
+    /**
+     * Sign with the shared secret or with the active key ring entry (adding its kid header).
+     */
+    private JwtBuilder sign(JwtBuilder builder) {
+        if (!keyRing.isAsymmetric()) {
+            return builder.signWith(signingKey);
+        }
+
+        PrivateKey privateKey = keyRing.activePrivateKey();
+        if (privateKey == null) {
+            throw new IllegalStateException("No private key configured for JWT key " + keyRing.activeKeyId());
+        }
+        return builder
+                .header().keyId(keyRing.activeKeyId()).and()
+                .signWith(privateKey, keyRing.signatureAlgorithm());
     }
 
     @Override
@@ -51,16 +86,16 @@ public class JwtService implements IJwtService, ISingletonService {
         LocalDateTime expiryTime = LocalDateTime.now()
                 .plusMinutes(jwtProperties.getAccessTokenExpirationMinutes());
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .claims(tokenClaims)
                 .subject(userId.toString())
                 .issuer(jwtProperties.getIssuer())
                 .audience().add(jwtProperties.getAudience()).and()
                 .issuedAt(new Date())
                 .expiration(Date.from(expiryTime.atZone(ZoneId.systemDefault()).toInstant()))
-                .id(UUID.randomUUID().toString())
-                .signWith(getSigningKey())
-                .compact();
+                .id(UUID.randomUUID().toString());
+
+        return sign(builder).compact();
     }
 
     @Override
@@ -68,15 +103,15 @@ public class JwtService implements IJwtService, ISingletonService {
         LocalDateTime expiryTime = LocalDateTime.now()
                 .plusDays(jwtProperties.getRefreshTokenExpirationDays());
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .subject(userId.toString())
                 .issuer(jwtProperties.getIssuer())
                 .audience().add(jwtProperties.getAudience()).and()
                 .issuedAt(new Date())
                 .expiration(Date.from(expiryTime.atZone(ZoneId.systemDefault()).toInstant()))
-                .id(UUID.randomUUID().toString())
-                .signWith(getSigningKey())
-                .compact();
+                .id(UUID.randomUUID().toString());
+
+        return sign(builder).compact();
     }
 
     @Override
@@ -100,11 +135,14 @@ public class JwtService implements IJwtService, ISingletonService {
     @Override
     public Claims validateToken(String token) {
         try {
-            JwtParser parser = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build();
-
-            return parser.parseSignedClaims(token).getPayload();
+            Jws<Claims> jws = parser.parseSignedClaims(token);
+            Claims claims = jws.getPayload();
+            // Shared-secret tokens minted after the switch to the key ring are forged or misissued
+            if (keyRing.isAsymmetric() && jws.getHeader().getKeyId() == null
+                    && !keyRing.acceptsLegacyToken(claims.getIssuedAt())) {
+                throw new UnsupportedJwtException("Shared-secret token no longer accepted");
+            }
+            return claims;
         } catch (ExpiredJwtException e) {
             log.warn("Token expired: {}", e.getMessage());
             throw e;
@@ -0,0 +1,18 @@
+package com.nuclea.common.service.password;
+
+/**
+ * Password hashing service running BCrypt on a dedicated, bounded executor.
+ * Methods throw {@link PasswordHashingBusyException} when the executor is saturated.
+ */
+public interface IPasswordHashingService {
+
+    /**
+     * Hash password with the configured BCrypt strength.
+     */
+    String hash(String plainPassword);
+
+    /**
+     * Verify password against hash; returns a new hash when the stored one uses a lower strength.
+     */
+    PasswordVerification verify(String plainPassword, String hashedPassword);
+}
@@ -0,0 +1,15 @@
+package com.nuclea.common.service.password;
+
+/**
+ * Thrown when the password hashing executor cannot accept more work.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
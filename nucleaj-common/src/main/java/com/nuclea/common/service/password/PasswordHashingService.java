@@ -0,0 +1,138 @@
+package com.nuclea.common.service.password;
+
+import com.nuclea.common.service.marker.ISingletonService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt hashing isolated on a fixed-size executor with a bounded queue.
+ * A login burst fills this pool instead of the request pool; once the queue is full
+ * callers fail fast instead of piling up.
+ * <p>
+ * Latency is exposed as {@code nuclea.password.hashing{operation}} and rejections as
+ * {@code nuclea.password.hashing.rejected}.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService implements IPasswordHashingService, ISingletonService {
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingService(
+            ObjectProvider<MeterRegistry> meterRegistryProvider,
+            @Value("${app.security.bcrypt.strength:10}") int strength,
+            @Value("${app.security.password-hashing.threads:0}") int threads,
+            @Value("${app.security.password-hashing.queue-capacity:100}") int queueCapacity,
+            @Value("${app.security.password-hashing.timeout:5s}") Duration timeout
+    ) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.timeout = timeout;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        MeterRegistry registry = meterRegistryProvider.getIfAvailable();
+        if (registry != null) {
+            new ExecutorServiceMetrics(executor, "password-hashing", Tags.empty()).bindTo(registry);
+            this.hashTimer = Timer.builder("nuclea.password.hashing").tag("operation", "hash").register(registry);
+            this.verifyTimer = Timer.builder("nuclea.password.hashing").tag("operation", "verify").register(registry);
+            this.rejectedCounter = Counter.builder("nuclea.password.hashing.rejected").register(registry);
+        } else {
+            this.hashTimer = null;
+            this.verifyTimer = null;
+            this.rejectedCounter = null;
+        }
+
+        log.info("PasswordHashingService initialized (strength: {}, threads: {}, queue: {})", strength, poolSize, queueCapacity);
+    }
+
+    @Override
+    public String hash(String plainPassword) {
+        return execute(() -> timed(hashTimer, () -> encoder.encode(plainPassword)));
+    }
+
+    @Override
+    public PasswordVerification verify(String plainPassword, String hashedPassword) {
+        return execute(() -> {
+            boolean matches = timed(verifyTimer, () -> encoder.matches(plainPassword, hashedPassword));
+            if (!matches || !encoder.upgradeEncoding(hashedPassword)) {
+                return new PasswordVerification(matches, null);
+            }
+            return new PasswordVerification(true, timed(hashTimer, () -> encoder.encode(plainPassword)));
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            if (rejectedCounter != null) {
+                rejectedCounter.increment();
+            }
+            log.warn("Password hashing rejected, executor saturated (queued: {})", executor.getQueue().size());
+            throw new PasswordHashingBusyException("Password hashing executor is saturated", e);
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PasswordHashingBusyException("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Password hashing interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static <T> T timed(Timer timer, Callable<T> task) throws Exception {
+        return timer != null ? timer.recordCallable(task) : task.call();
+    }
+}
@@ -0,0 +1,14 @@
+package com.nuclea.common.service.password;
+
+/**
+ * Result of a password verification.
+ *
+ * @param matches     whether the password matched
+ * @param upgradedHash re-hashed password when the stored hash should be upgraded, otherwise null
+ */
+public record PasswordVerification(boolean matches, String upgradedHash) {
+
+    public boolean needsUpgrade() {
+        return upgradedHash != null;
+    }
+}
@@ -0,0 +1,74 @@
+package com.nuclea.common.service.resilience;
+
+import com.nuclea.common.service.marker.ISingletonService;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs calls to an outbound dependency through its Resilience4j bulkhead and circuit breaker.
+ * <p>
+ * Instances are configured under {@code resilience4j.circuitbreaker.instances.<name>} and
+ * {@code resilience4j.bulkhead.instances.<name>}; breaker and bulkhead metrics are published by the
+ * Resilience4j Micrometer integration. When the breaker is open or the bulkhead is full the call fails
+ * immediately with {@link CallNotPermittedException} / {@link BulkheadFullException} so callers can
+ * fall back without waiting for driver timeouts.
+ * <p>
+ * Calls are not time-limited here: a call that is already running is bounded by its client's own timeout
+ * ({@code spring.data.redis.timeout}, mail and FTP socket timeouts), which therefore has to be short.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResilienceGuard implements ISingletonService {
+
+    public static final String REDIS = "redis";
+    public static final String MAIL = "mail";
+    public static final String FTP = "ftp";
+
+    /**
+     * Call that may throw a checked exception.
+     */
+    @FunctionalInterface
+    public interface GuardedCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+
+    /**
+     * Execute the call under the named bulkhead and circuit breaker.
+     */
+    public <T, E extends Exception> T execute(String name, GuardedCall<T, E> call) throws E {
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(name);
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name);
+
+        bulkhead.acquirePermission();
+        try {
+            circuitBreaker.acquirePermission();
+            long start = circuitBreaker.getCurrentTimestamp();
+            try {
+                T result = call.call();
+                circuitBreaker.onResult(circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(), result);
+                return result;
+            } catch (Exception e) {
+                circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(), e);
+                throw e;
+            }
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    /**
+     * Whether the call was refused by the guard itself rather than failed by the dependency.
+     */
+    public static boolean isRejected(Throwable e) {
+        return e instanceof CallNotPermittedException || e instanceof BulkheadFullException;
+    }
+}
@@ -0,0 +1,38 @@
+package com.nuclea.common.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Utility methods for HTTP requests.
+ */
+public final class HttpRequestUtil {
+
+    private HttpRequestUtil() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Get client IP address, honoring X-Forwarded-For and X-Real-IP set by the proxy.
+     * The headers are client-controlled, so use this for logging and auditing only, not for enforcement.
+     */
+    public static String getClientIpAddress(HttpServletRequest request) {
+        String xForwardedFor = request.getHeader("X-Forwarded-For");
+        if (xForwardedFor != null && !xForwardedFor.isBlank()) {
+            return xForwardedFor.split(",")[0].trim();
+        }
+
+        String xRealIp = request.getHeader("X-Real-IP");
+        if (xRealIp != null && !xRealIp.isBlank()) {
+            return xRealIp;
+        }
+
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * Request path without the servlet context path.
+     */
+    public static String getPathWithinApplication(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
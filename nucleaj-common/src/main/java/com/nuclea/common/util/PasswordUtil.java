@@ -1,46 +0,0 @@
-package com.nuclea.common.util;
-
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
-
-/**
- * Utility class for password operations.
- */
-public final class PasswordUtil {
-
-    private static final PasswordEncoder PASSWORD_ENCODER = new BCryptPasswordEncoder();
-
-    private PasswordUtil() {
-        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
-    }
-
-    /**
-     * Hash password using BCrypt.
-     */
-    public static String hashPassword(String plainPassword) {
-        return PASSWORD_ENCODER.encode(plainPassword);
-    }
-
-    /**
-     * Verify password against hash.
-     */
-    public static boolean verifyPassword(String plainPassword, String hashedPassword) {
-        return PASSWORD_ENCODER.matches(plainPassword, hashedPassword);
-    }
-
-    /**
-     * Validate password strength.
-     */
-    public static boolean isStrongPassword(String password) {
-        if (password == null || password.length() < 8) {
-            return false;
-        }
-
-        boolean hasUpper = password.chars().anyMatch(Character::isUpperCase);
-        boolean hasLower = password.chars().anyMatch(Character::isLowerCase);
-        boolean hasDigit = password.chars().anyMatch(Character::isDigit);
-        boolean hasSpecial = password.chars().anyMatch(ch -> "!@#$%^&*()_+-=[]{}|;:,.<>?".indexOf(ch) >= 0);
-
-        return hasUpper && hasLower && hasDigit && hasSpecial;
-    }
-}
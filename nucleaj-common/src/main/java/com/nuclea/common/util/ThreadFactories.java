@@ -0,0 +1,24 @@
+package com.nuclea.common.util;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factories for the application's own executors.
+ */
+public final class ThreadFactories {
+
+    private ThreadFactories() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Threads named {@code <prefix>-1, <prefix>-2, ...}: virtual threads when requested
+     * (see {@code spring.threads.virtual.enabled}), otherwise daemon platform threads.
+     */
+    public static ThreadFactory named(String prefix, boolean virtual) {
+        if (virtual) {
+            return Thread.ofVirtual().name(prefix + "-", 1).factory();
+        }
+        return Thread.ofPlatform().name(prefix + "-", 1).daemon(true).factory();
+    }
+}
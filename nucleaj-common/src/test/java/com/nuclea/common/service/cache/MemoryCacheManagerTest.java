@@ -0,0 +1,238 @@
+package com.nuclea.common.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nuclea.common.constants.CacheKeys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Unit tests for MemoryCacheManager.
+ */
+class MemoryCacheManagerTest {
+
+    private static final int PARALLEL_CALLERS = 200;
+
+    private CacheMetrics cacheMetrics;
+    private MemoryCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheMetrics = new CacheMetrics(new SimpleMeterRegistry());
+        cacheManager = new MemoryCacheManager(new ObjectMapper(), cacheMetrics, false);
+    }
+
+    @Test
+    void getOrSet_ConcurrentMisses_RunSupplierOnce() throws Exception {
+        // Given
+        AtomicInteger supplierCalls = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_CALLERS);
+
+        try {
+            // When
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < PARALLEL_CALLERS; i++) {
+                results.add(executor.submit(() -> {
+                    startGate.await();
+                    return cacheManager.getOrSet("app_settings:SMTP_Url", String.class, Duration.ofMinutes(5), () -> {
+                        supplierCalls.incrementAndGet();
+                        sleep(100);
+                        return "smtp.example.com";
+                    });
+                }));
+            }
+            startGate.countDown();
+
+            // Then
+            for (Future<String> result : results) {
+                assertEquals("smtp.example.com", result.get());
+            }
+            assertEquals(1, supplierCalls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getOrSet_RemovedWhileLoading_DoesNotStoreStaleValue() throws Exception {
+        // Given
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<String> result = executor.submit(() ->
+                    cacheManager.getOrSet("app_settings:SMTP_Url", String.class, Duration.ofMinutes(5), () -> {
+                        loading.countDown();
+                        await(release);
+                        return "old.example.com";
+                    }));
+            loading.await();
+
+            // When
+            cacheManager.remove("app_settings:SMTP_Url");
+            release.countDown();
+
+            // Then
+            assertEquals("old.example.com", result.get());
+            assertFalse(cacheManager.exists("app_settings:SMTP_Url"));
+            assertEquals("new.example.com",
+                    cacheManager.getOrSet("app_settings:SMTP_Url", String.class, () -> "new.example.com"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getOrSet_SetWhileLoading_KeepsNewerValue() throws Exception {
+        // Given
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<String> result = executor.submit(() ->
+                    cacheManager.getOrSet("app_settings:SMTP_Url", String.class, Duration.ofMinutes(5), () -> {
+                        loading.countDown();
+                        await(release);
+                        return "old.example.com";
+                    }));
+            loading.await();
+
+            // When
+            cacheManager.set("app_settings:SMTP_Url", "new.example.com");
+            release.countDown();
+            result.get();
+
+            // Then
+            assertEquals("new.example.com", cacheManager.get("app_settings:SMTP_Url", String.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getOrSet_LoaderThrowsError_NextCallLoadsAgain() {
+        // Given
+        String key = "app_settings:SMTP_Url";
+        assertThrows(LinkageError.class, () -> cacheManager.getOrSet(key, String.class, () -> {
+            throw new LinkageError("loader failed");
+        }));
+
+        // When
+        String value = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> cacheManager.getOrSet(key, String.class, () -> "smtp.example.com"));
+
+        // Then
+        assertEquals("smtp.example.com", value);
+    }
+
+    @Test
+    void removePattern_RegexCharactersInKey_MatchedLiterally() {
+        // Given
+        cacheManager.set("url_mapping:/a.b(1)", "first");
+        cacheManager.set("url_mapping:/aXb(1)", "second");
+
+        // When
+        cacheManager.removePattern("url_mapping:/a.b(*");
+
+        // Then
+        assertFalse(cacheManager.exists("url_mapping:/a.b(1)"));
+        assertEquals("second", cacheManager.get("url_mapping:/aXb(1)", String.class));
+    }
+
+    @Test
+    void get_SameType_ReturnsStoredInstance() {
+        // Given
+        List<String> value = new ArrayList<>(List.of("tr", "en"));
+        cacheManager.set("languages", value);
+
+        // When
+        ArrayList<?> cached = cacheManager.get("languages", ArrayList.class);
+
+        // Then
+        assertSame(value, cached);
+    }
+
+    @Test
+    void getOrSet_RecordsRegionHitsMissesAndLoads() {
+        // Given
+        cacheManager.getOrSet("app_settings:SMTP_Url", String.class, () -> "smtp.example.com");
+
+        // When
+        cacheManager.getOrSet("app_settings:SMTP_Url", String.class, () -> "smtp.example.com");
+        cacheManager.get("app_settings:SMTP_Port", String.class);
+
+        // Then
+        CacheMetrics.RegionStats stats = cacheMetrics.region(CacheKeys.APP_SETTINGS_BY_KEY);
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(1, stats.loads());
+        assertEquals(1, cacheManager.count(CacheKeys.regionPattern(CacheKeys.APP_SETTINGS_BY_KEY)));
+    }
+
+    @Test
+    void getOrSetAll_RemovedWhileLoading_DoesNotStoreThatKey() {
+        // Given
+        List<String> keys = List.of("app_settings:SMTP_Url", "app_settings:SMTP_Port");
+
+        // When
+        Map<String, String> values = cacheManager.getOrSetAll(keys, String.class, Duration.ofMinutes(5), requested -> {
+            cacheManager.remove("app_settings:SMTP_Url");
+            return Map.of("app_settings:SMTP_Url", "old.example.com", "app_settings:SMTP_Port", "25");
+        });
+
+        // Then
+        assertEquals(Map.of("app_settings:SMTP_Url", "old.example.com", "app_settings:SMTP_Port", "25"), values);
+        assertFalse(cacheManager.exists("app_settings:SMTP_Url"));
+        assertEquals("25", cacheManager.get("app_settings:SMTP_Port", String.class));
+    }
+
+    @Test
+    void getOrSetAll_KeysFromTwoRegions_RecordLoadInEachRegion() {
+        // Given
+        List<String> keys = List.of("app_settings:SMTP_Url", "language:tr");
+
+        // When
+        cacheManager.getOrSetAll(keys, String.class, Duration.ofMinutes(5),
+                requested -> Map.of("app_settings:SMTP_Url", "smtp.example.com", "language:tr", "Türkçe"));
+
+        // Then
+        assertEquals(1, cacheMetrics.region(CacheKeys.APP_SETTINGS_BY_KEY).loads());
+        assertEquals(1, cacheMetrics.region(CacheKeys.LANGUAGE_BY_CODE).loads());
+        assertEquals(1, cacheMetrics.region(CacheKeys.LANGUAGE_BY_CODE).misses());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
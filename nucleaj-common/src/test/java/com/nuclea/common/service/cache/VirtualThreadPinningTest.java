@@ -0,0 +1,67 @@
+package com.nuclea.common.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks with JFR that blocking cache loads do not pin virtual threads.
+ */
+class VirtualThreadPinningTest {
+
+    private static final int PARALLEL_CALLERS = 100;
+
+    @Test
+    void getOrSet_BlockingSupplierOnVirtualThreads_DoesNotPin() throws Exception {
+        // Given
+        MemoryCacheManager cacheManager = new MemoryCacheManager(
+                new ObjectMapper(), new CacheMetrics(new SimpleMeterRegistry()), false);
+        AtomicInteger pinnedEvents = new AtomicInteger();
+
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinnedEvents.incrementAndGet());
+            recording.startAsync();
+
+            // When
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<String>> results = new ArrayList<>();
+                for (int i = 0; i < PARALLEL_CALLERS; i++) {
+                    String key = "app_settings:KEY_" + (i % 10);
+                    results.add(executor.submit(() -> cacheManager.getOrSet(key, String.class, Duration.ofMinutes(5), () -> {
+                        sleep(50);
+                        return "value";
+                    })));
+                }
+                for (Future<String> result : results) {
+                    assertEquals("value", result.get());
+                }
+            }
+
+            // Flush pending events before stopping the stream
+            recording.stop();
+        }
+
+        // Then
+        assertEquals(0, pinnedEvents.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
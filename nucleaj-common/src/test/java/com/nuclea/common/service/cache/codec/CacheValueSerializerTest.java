@@ -0,0 +1,73 @@
+package com.nuclea.common.service.cache.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nuclea.common.config.CacheCodecProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for CacheValueSerializer.
+ */
+class CacheValueSerializerTest {
+
+    private CacheCodecProperties properties;
+    private CacheValueSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CacheCodecProperties();
+        serializer = new CacheValueSerializer(new ObjectMapper(), properties);
+    }
+
+    @Test
+    void serialize_LargeValue_IsCompressedAndRoundTrips() throws Exception {
+        // Given
+        List<Map<String, Object>> settings = settingsPayload(200);
+
+        // When
+        byte[] data = serializer.serialize("app_settings:all", settings);
+        List<?> decoded = serializer.deserialize(data, List.class);
+
+        // Then
+        assertTrue((data[0] & 0x80) != 0);
+        assertEquals(settings, decoded);
+    }
+
+    @Test
+    void serialize_RegionCodecChanged_OldEntriesStillDecode() throws Exception {
+        // Given
+        List<Map<String, Object>> settings = settingsPayload(5);
+        byte[] smileData = serializer.serialize("app_settings:all", settings);
+
+        // When
+        properties.getRegions().put("app_settings", "json");
+        byte[] jsonData = serializer.serialize("app_settings:all", settings);
+
+        // Then
+        assertTrue(smileData.length < jsonData.length);
+        assertEquals(settings, serializer.deserialize(smileData, List.class));
+        assertEquals(settings, serializer.deserialize(jsonData, List.class));
+    }
+
+    private static List<Map<String, Object>> settingsPayload(int count) {
+        List<Map<String, Object>> settings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> setting = new LinkedHashMap<>();
+            setting.put("id", i);
+            setting.put("name", "SMTP_Setting_" + i);
+            setting.put("value", "smtp.example.com");
+            setting.put("description", "Mail server setting");
+            setting.put("isActive", true);
+            settings.add(setting);
+        }
+        return settings;
+    }
+}
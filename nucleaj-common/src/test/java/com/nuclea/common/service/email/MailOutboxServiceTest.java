@@ -0,0 +1,207 @@
+package com.nuclea.common.service.email;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.nuclea.common.service.resilience.ResilienceGuard;
+import com.nuclea.data.entity.mail.MailOutboxMessage;
+import com.nuclea.data.enums.MailOutboxStatus;
+import com.nuclea.data.repository.mail.MailOutboxMessageRepository;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for MailOutboxService against an in-memory SMTP server.
+ * The repository keeps rows in memory and claims them like the database does (PENDING to SENDING once).
+ */
+class MailOutboxServiceTest {
+
+    private static final int MAX_ATTEMPTS = 2;
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(30);
+    private static final long WAIT_MILLIS = 5000;
+
+    private final Map<Long, MailOutboxMessage> rows = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    private GreenMail smtpServer;
+    private SmtpConnectionPool connectionPool;
+    private MailOutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        smtpServer = new GreenMail(ServerSetupTest.SMTP);
+        smtpServer.start();
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        connectionPool = new SmtpConnectionPool(
+                mailSender, new ResilienceGuard(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults())
+        );
+        outboxService = new MailOutboxService(
+                repository(), mailSender, connectionPool, 2, 100, MAX_ATTEMPTS, INITIAL_BACKOFF, Duration.ofHours(1)
+        );
+        ReflectionTestUtils.setField(outboxService, "fromEmail", "noreply@nuclea.com");
+        ReflectionTestUtils.setField(outboxService, "fromName", "Nuclea");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        outboxService.shutdown();
+        connectionPool.shutdown();
+        smtpServer.stop();
+    }
+
+    @Test
+    void enqueue_InTransaction_SentOnlyAfterCommit() throws Exception {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        MailOutboxMessage message = outboxService.enqueue("customer@example.com", "Email Verification", "<p>482913</p>", true);
+
+        // When
+        boolean sentBeforeCommit = smtpServer.waitForIncomingEmail(200, 1);
+        commit();
+
+        // Then
+        assertFalse(sentBeforeCommit);
+        assertTrue(smtpServer.waitForIncomingEmail(WAIT_MILLIS, 1));
+        assertEquals("Email Verification", smtpServer.getReceivedMessages()[0].getSubject());
+        MailOutboxMessage sent = awaitRow(message.getId(), row -> row.getStatus() == MailOutboxStatus.SENT);
+        assertNotNull(sent.getSentAt());
+        assertEquals(0, sent.getAttempts());
+    }
+
+    @Test
+    void enqueue_DispatchedByCommitAndPoller_ClaimedAndSentOnce() throws Exception {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        MailOutboxMessage message = outboxService.enqueue("customer@example.com", "Email Verification", "<p>482913</p>", true);
+
+        // When
+        outboxService.pollDueMessages();
+        commit();
+
+        // Then
+        awaitRow(message.getId(), row -> row.getStatus() == MailOutboxStatus.SENT);
+        assertTrue(smtpServer.waitForIncomingEmail(WAIT_MILLIS, 1));
+        assertFalse(smtpServer.waitForIncomingEmail(500, 2));
+    }
+
+    @Test
+    void enqueue_SmtpUnavailable_RetriedWithBackoffThenDead() throws Exception {
+        // Given
+        smtpServer.stop();
+        LocalDateTime enqueuedAt = LocalDateTime.now();
+        MailOutboxMessage message = outboxService.enqueue("customer@example.com", "Email Verification", "<p>482913</p>", true);
+        MailOutboxMessage firstFailure = awaitRow(message.getId(),
+                row -> row.getStatus() == MailOutboxStatus.PENDING && row.getAttempts() == 1);
+
+        // When
+        outboxService.pollDueMessages();
+        int attemptsBeforeDue = rows.get(message.getId()).getAttempts();
+        rows.get(message.getId()).setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxService.pollDueMessages();
+
+        // Then
+        assertTrue(firstFailure.getNextAttemptAt().isAfter(enqueuedAt.plus(INITIAL_BACKOFF).minusSeconds(1)));
+        assertNotNull(firstFailure.getLastError());
+        assertEquals(1, attemptsBeforeDue);
+        MailOutboxMessage dead = awaitRow(message.getId(), row -> row.getStatus() == MailOutboxStatus.DEAD);
+        assertEquals(MAX_ATTEMPTS, dead.getAttempts());
+        assertEquals(0, smtpServer.getReceivedMessages().length);
+    }
+
+    /**
+     * Run the after-commit callbacks registered during the test's transaction.
+     */
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private MailOutboxMessage awaitRow(Long id, Predicate<MailOutboxMessage> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            MailOutboxMessage row = rows.get(id);
+            if (row != null && condition.test(row)) {
+                return copy(row);
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Outbox message " + id + " did not reach the expected state");
+    }
+
+    /**
+     * Repository over {@link #rows}; saved and loaded rows are copies, as with a database.
+     */
+    private MailOutboxMessageRepository repository() {
+        MailOutboxMessageRepository repository = mock(MailOutboxMessageRepository.class);
+        when(repository.save(any(MailOutboxMessage.class))).thenAnswer(invocation -> {
+            MailOutboxMessage message = invocation.getArgument(0);
+            if (message.getId() == null) {
+                message.setId(ids.incrementAndGet());
+            }
+            rows.put(message.getId(), copy(message));
+            return message;
+        });
+        when(repository.findById(any())).thenAnswer(invocation ->
+                Optional.ofNullable(rows.get(invocation.<Long>getArgument(0))).map(MailOutboxServiceTest::copy));
+        when(repository.claim(any(), any())).thenAnswer(invocation -> claim(invocation.getArgument(0)));
+        when(repository.findDueIds(any(), any(), any())).thenAnswer(invocation -> rows.values().stream()
+                .filter(row -> row.getStatus() == invocation.getArgument(0))
+                .filter(row -> !row.getNextAttemptAt().isAfter(invocation.getArgument(1)))
+                .map(MailOutboxMessage::getId)
+                .toList());
+        return repository;
+    }
+
+    private synchronized int claim(Long id) {
+        MailOutboxMessage row = rows.get(id);
+        if (row == null || row.getStatus() != MailOutboxStatus.PENDING) {
+            return 0;
+        }
+        row.setStatus(MailOutboxStatus.SENDING);
+        return 1;
+    }
+
+    private static MailOutboxMessage copy(MailOutboxMessage message) {
+        return MailOutboxMessage.builder()
+                .id(message.getId())
+                .recipient(message.getRecipient())
+                .subject(message.getSubject())
+                .body(message.getBody())
+                .isHtml(message.getIsHtml())
+                .status(message.getStatus())
+                .attempts(message.getAttempts())
+                .nextAttemptAt(message.getNextAttemptAt())
+                .lastError(message.getLastError())
+                .sentAt(message.getSentAt())
+                .build();
+    }
+}
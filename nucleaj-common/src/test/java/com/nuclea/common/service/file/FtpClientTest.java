@@ -0,0 +1,183 @@
+package com.nuclea.common.service.file;
+
+import com.nuclea.common.service.resilience.ResilienceGuard;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.CommandNames;
+import org.mockftpserver.core.session.Session;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.command.MkdCommandHandler;
+import org.mockftpserver.fake.command.UserCommandHandler;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileEntry;
+import org.mockftpserver.fake.filesystem.FileSystem;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for FtpClient against an in-memory FTP server.
+ */
+class FtpClientTest {
+
+    private static final String USERNAME = "cdn";
+    private static final String PASSWORD = "secret";
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger logins = new AtomicInteger();
+    private final AtomicInteger makeDirectoryCommands = new AtomicInteger();
+
+    private FakeFtpServer ftpServer;
+    private FileSystem fileSystem;
+    private FtpConnectionPool connectionPool;
+    private FtpClient ftpClient;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/"));
+
+        ftpServer = new FakeFtpServer();
+        ftpServer.setServerControlPort(0);
+        ftpServer.addUserAccount(new UserAccount(USERNAME, PASSWORD, "/"));
+        ftpServer.setFileSystem(fileSystem);
+        ftpServer.setCommandHandler(CommandNames.USER, new UserCommandHandler() {
+            @Override
+            protected void handle(Command command, Session session) {
+                logins.incrementAndGet();
+                super.handle(command, session);
+            }
+        });
+        ftpServer.setCommandHandler(CommandNames.MKD, new MkdCommandHandler() {
+            @Override
+            protected void handle(Command command, Session session) {
+                makeDirectoryCommands.incrementAndGet();
+                super.handle(command, session);
+            }
+        });
+        ftpServer.start();
+        while (!ftpServer.isStarted()) {
+            Thread.sleep(10);
+        }
+
+        connectionPool = new FtpConnectionPool(
+                "localhost", ftpServer.getServerControlPort(), USERNAME, PASSWORD,
+                2, Duration.ofSeconds(5), Duration.ofMinutes(2), Duration.ofSeconds(5), Duration.ofSeconds(5),
+                new ResilienceGuard(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults())
+        );
+        ftpClient = new FtpClient(connectionPool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionPool.shutdown();
+        ftpServer.stop();
+    }
+
+    @Test
+    void uploadFile_SequentialUploads_ReuseOnePooledSession() throws IOException {
+        // Given
+        String first = localFile("one.txt", "one");
+        String second = localFile("two.txt", "two");
+
+        // When
+        boolean firstUploaded = ftpClient.uploadFile(first, "/cdn/one.txt");
+        boolean secondUploaded = ftpClient.uploadFile(second, "/cdn/two.txt");
+
+        // Then
+        assertTrue(firstUploaded);
+        assertTrue(secondUploaded);
+        assertEquals(1, logins.get());
+    }
+
+    @Test
+    void uploadFiles_NestedPaths_CreateEachDirectoryOnceAndStoreAll() throws IOException {
+        // Given
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put(localFile("a.txt", "alpha"), "/cdn/img/a.txt");
+        files.put(localFile("b.txt", "beta"), "/cdn/img/b.txt");
+        files.put(localFile("c.txt", "gamma"), "/cdn/css/c.txt");
+        files.put(tempDir.resolve("missing.txt").toString(), "/cdn/img/missing.txt");
+
+        // When
+        Map<String, Boolean> results = ftpClient.uploadFiles(files);
+
+        // Then
+        assertEquals(Map.of(
+                "/cdn/img/a.txt", true,
+                "/cdn/img/b.txt", true,
+                "/cdn/css/c.txt", true,
+                "/cdn/img/missing.txt", false
+        ), results);
+        assertEquals("alpha", remoteContent("/cdn/img/a.txt"));
+        assertEquals("beta", remoteContent("/cdn/img/b.txt"));
+        assertEquals("gamma", remoteContent("/cdn/css/c.txt"));
+        assertEquals(3, makeDirectoryCommands.get());
+        assertEquals(1, logins.get());
+    }
+
+    @Test
+    void uploadFile_DirectoryAlreadyExists_RememberedAfterExistenceCheck() throws IOException {
+        // Given
+        fileSystem.add(new DirectoryEntry("/cdn"));
+        String first = localFile("one.txt", "one");
+        String second = localFile("two.txt", "two");
+
+        // When
+        boolean firstUploaded = ftpClient.uploadFile(first, "/cdn/one.txt");
+        boolean secondUploaded = ftpClient.uploadFile(second, "/cdn/two.txt");
+
+        // Then
+        assertTrue(firstUploaded);
+        assertTrue(secondUploaded);
+        assertEquals(1, makeDirectoryCommands.get());
+    }
+
+    @Test
+    void uploadFile_DirectoryCreationFailed_NotRemembered() throws IOException {
+        // Given: a file where the directory should be, so MKD fails
+        fileSystem.add(new FileEntry("/cdn"));
+        String local = localFile("one.txt", "one");
+        boolean blockedUpload = ftpClient.uploadFile(local, "/cdn/one.txt");
+        fileSystem.delete("/cdn");
+
+        // When
+        boolean retriedUpload = ftpClient.uploadFile(local, "/cdn/one.txt");
+
+        // Then
+        assertFalse(blockedUpload);
+        assertTrue(retriedUpload);
+        assertEquals("one", remoteContent("/cdn/one.txt"));
+    }
+
+    private String localFile(String name, String content) throws IOException {
+        return Files.writeString(tempDir.resolve(name), content).toString();
+    }
+
+    private String remoteContent(String path) throws IOException {
+        FileEntry entry = (FileEntry) fileSystem.getEntry(path);
+        try (InputStream in = entry.createInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
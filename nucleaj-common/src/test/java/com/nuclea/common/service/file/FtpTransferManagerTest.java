@@ -0,0 +1,97 @@
+package com.nuclea.common.service.file;
+
+import com.nuclea.common.service.resilience.ResilienceGuard;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileSystem;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for FtpTransferManager against an in-memory FTP server.
+ */
+class FtpTransferManagerTest {
+
+    private static final String USERNAME = "cdn";
+    private static final String PASSWORD = "secret";
+
+    @TempDir
+    Path tempDir;
+
+    private FakeFtpServer ftpServer;
+    private FileSystem fileSystem;
+    private FtpConnectionPool connectionPool;
+    private FtpTransferManager transferManager;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/"));
+
+        ftpServer = new FakeFtpServer();
+        ftpServer.setServerControlPort(0);
+        ftpServer.addUserAccount(new UserAccount(USERNAME, PASSWORD, "/"));
+        ftpServer.setFileSystem(fileSystem);
+        ftpServer.start();
+        while (!ftpServer.isStarted()) {
+            Thread.sleep(10);
+        }
+
+        connectionPool = new FtpConnectionPool(
+                "localhost", ftpServer.getServerControlPort(), USERNAME, PASSWORD,
+                2, Duration.ofSeconds(5), Duration.ofMinutes(2), Duration.ofSeconds(5), Duration.ofSeconds(5),
+                new ResilienceGuard(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults())
+        );
+        // A long backoff makes any retry of the missing file show up as a timeout
+        transferManager = new FtpTransferManager(
+                connectionPool, new FtpClient(connectionPool),
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class),
+                2, 3, Duration.ofSeconds(30), false
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        transferManager.shutdown();
+        connectionPool.shutdown();
+        ftpServer.stop();
+    }
+
+    @Test
+    void uploadAll_MissingLocalFile_FailsThatFileWithoutRetryAndKeepsReport() throws IOException {
+        // Given
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put(Files.writeString(tempDir.resolve("a.txt"), "alpha").toString(), "/cdn/a.txt");
+        files.put(tempDir.resolve("missing.txt").toString(), "/cdn/missing.txt");
+
+        // When
+        FtpTransferReport report = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> transferManager.uploadAll(files));
+
+        // Then
+        assertEquals(2, report.results().size());
+        assertEquals(FtpTransferReport.Status.UPLOADED, report.results().get(0).status());
+        assertEquals(FtpTransferReport.Status.FAILED, report.results().get(1).status());
+        assertTrue(report.results().get(1).error().startsWith("Cannot read local file"));
+        assertTrue(fileSystem.exists("/cdn/a.txt"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.nuclea.data.entity.file;
+
+import com.nuclea.data.entity.base.BaseEntity;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+/**
+ * Stored file content, addressed by its SHA-256.
+ * Every upload of the same bytes references the same blob; the blob is removed when its reference count reaches zero.
+ */
+@Entity
+@Table(name = "file_blobs", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_file_blobs_sha256", columnNames = "sha256")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FileBlob extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    @Size(min = 64, max = 64)
+    @Column(name = "sha256", nullable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "size", nullable = false)
+    private Long size;
+
+    @NotBlank
+    @Size(max = 500)
+    @Column(name = "storage_path", nullable = false, length = 500)
+    private String storagePath;
+
+    @Column(name = "ref_count", nullable = false)
+    @Builder.Default
+    private Integer refCount = 1;
+
+    @Size(max = 500)
+    @Column(name = "cdn_path", length = 500)
+    private String cdnPath;
+}
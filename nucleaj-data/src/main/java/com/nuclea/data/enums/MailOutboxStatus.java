@@ -0,0 +1,11 @@
+package com.nuclea.data.enums;
+
+/**
+ * Delivery states of a queued email.
+ */
+public enum MailOutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    DEAD
+}
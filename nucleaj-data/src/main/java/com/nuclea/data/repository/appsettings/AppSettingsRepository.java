@@ -2,8 +2,11 @@ package com.nuclea.data.repository.appsettings;
 
 import com.nuclea.data.entity.appsettings.AppSettings;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,4 +23,14 @@ public interface AppSettingsRepository extends JpaRepository<AppSettings, Long>
     List<AppSettings> findAllByIsActiveTrueOrderByDisplayOrder();
 
     List<AppSettings> findByGroupIdAndIsActiveTrue(Long groupId);
+
+    @Query("SELECT s FROM AppSettings s LEFT JOIN FETCH s.group WHERE s.isActive = true ORDER BY s.displayOrder")
+    List<AppSettings> findAllActiveWithGroup();
+
+    List<AppSettings> findAllBySettingKeyInAndIsActiveTrue(Collection<String> settingKeys);
+
+    /**
+     * Settings changed (including deactivated) since the given time, for delta cache reloads.
+     */
+    List<AppSettings> findAllByUpdatedDateGreaterThanEqual(LocalDateTime updatedDate);
 }
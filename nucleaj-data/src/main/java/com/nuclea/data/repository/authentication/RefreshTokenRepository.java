@@ -19,8 +19,15 @@ public interface RefreshTokenRepository extends SoftDeleteRepository<RefreshToke
 
     Optional<RefreshToken> findByTokenAndDeletedDateIsNull(String token);
 
+    @Query("SELECT rt FROM RefreshToken rt JOIN FETCH rt.customer WHERE rt.token = :token AND rt.deletedDate IS NULL")
+    Optional<RefreshToken> findWithCustomerByToken(@Param("token") String token);
+
     List<RefreshToken> findByCustomerIdAndDeletedDateIsNull(Long customerId);
 
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revokedAt = :revokedAt WHERE rt.token = :token AND rt.revokedAt IS NULL")
+    void revokeByToken(@Param("token") String token, @Param("revokedAt") LocalDateTime revokedAt);
+
     @Modifying
     @Query("UPDATE RefreshToken rt SET rt.revokedAt = :revokedAt WHERE rt.customer.id = :customerId AND rt.deletedDate IS NULL")
     void revokeAllByCustomerId(@Param("customerId") Long customerId, @Param("revokedAt") LocalDateTime revokedAt);
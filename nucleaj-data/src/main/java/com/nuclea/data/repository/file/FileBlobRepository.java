@@ -0,0 +1,42 @@
+package com.nuclea.data.repository.file;
+
+import com.nuclea.data.entity.file.FileBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Repository for FileBlob entity.
+ */
+@Repository
+public interface FileBlobRepository extends JpaRepository<FileBlob, Long> {
+
+    Optional<FileBlob> findBySha256(String sha256);
+
+    /**
+     * Find and lock the blob row until the surrounding transaction ends; reference count updates wait for it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM FileBlob b WHERE b.sha256 = :sha256")
+    Optional<FileBlob> findBySha256ForUpdate(@Param("sha256") String sha256);
+
+    /**
+     * Add a reference; returns 0 when the blob no longer exists.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE FileBlob b SET b.refCount = b.refCount + 1 WHERE b.sha256 = :sha256")
+    int incrementRefCount(@Param("sha256") String sha256);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE FileBlob b SET b.cdnPath = :cdnPath WHERE b.sha256 = :sha256")
+    int updateCdnPath(@Param("sha256") String sha256, @Param("cdnPath") String cdnPath);
+}
@@ -0,0 +1,42 @@
+package com.nuclea.data.repository.mail;
+
+import com.nuclea.data.entity.mail.MailOutboxMessage;
+import com.nuclea.data.enums.MailOutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for MailOutboxMessage entity.
+ */
+@Repository
+public interface MailOutboxMessageRepository extends JpaRepository<MailOutboxMessage, Long> {
+
+    @Query("SELECT m.id FROM MailOutboxMessage m WHERE m.status = :status AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt")
+    List<Long> findDueIds(@Param("status") MailOutboxStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Claim a pending message for delivery; returns 0 when another worker or node got it first.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE MailOutboxMessage m SET m.status = com.nuclea.data.enums.MailOutboxStatus.SENDING, m.updatedDate = :now " +
+            "WHERE m.id = :id AND m.status = com.nuclea.data.enums.MailOutboxStatus.PENDING")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Return messages stuck in SENDING (e.g. after a crash) to the queue.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE MailOutboxMessage m SET m.status = com.nuclea.data.enums.MailOutboxStatus.PENDING " +
+            "WHERE m.status = com.nuclea.data.enums.MailOutboxStatus.SENDING AND m.updatedDate < :staleBefore")
+    int releaseStale(@Param("staleBefore") LocalDateTime staleBefore);
+}
@@ -0,0 +1,15 @@
+-- Content-addressed file storage (FileBlob).
+-- Required where spring.jpa.hibernate.ddl-auto=validate (prod); run once before deploying.
+CREATE TABLE file_blobs (
+    id           BIGINT IDENTITY(1,1) NOT NULL,
+    sha256       NVARCHAR(64)         NOT NULL,
+    size         BIGINT               NOT NULL,
+    storage_path NVARCHAR(500)        NOT NULL,
+    ref_count    INT                  NOT NULL CONSTRAINT df_file_blobs_ref_count DEFAULT 1,
+    cdn_path     NVARCHAR(500)        NULL,
+    created_date DATETIME2(6)         NOT NULL,
+    updated_date DATETIME2(6)         NULL,
+    CONSTRAINT pk_file_blobs PRIMARY KEY (id),
+    -- ContentAddressedFileStore.store relies on this to detect a concurrent insert of the same content
+    CONSTRAINT uk_file_blobs_sha256 UNIQUE (sha256)
+);
@@ -0,0 +1,21 @@
+-- Transactional email outbox (MailOutboxMessage).
+-- Required where spring.jpa.hibernate.ddl-auto=validate (prod); run once before deploying.
+CREATE TABLE mail_outbox (
+    id              BIGINT IDENTITY(1,1) NOT NULL,
+    recipient       NVARCHAR(255)        NOT NULL,
+    subject         NVARCHAR(500)        NOT NULL,
+    body            TEXT                 NOT NULL,
+    is_html         BIT                  NOT NULL CONSTRAINT df_mail_outbox_is_html DEFAULT 1,
+    status          NVARCHAR(20)         NOT NULL CONSTRAINT df_mail_outbox_status DEFAULT 'PENDING',
+    attempts        INT                  NOT NULL CONSTRAINT df_mail_outbox_attempts DEFAULT 0,
+    next_attempt_at DATETIME2(6)         NOT NULL,
+    last_error      NVARCHAR(1000)       NULL,
+    sent_at         DATETIME2(6)         NULL,
+    created_date    DATETIME2(6)         NOT NULL,
+    updated_date    DATETIME2(6)         NULL,
+    CONSTRAINT pk_mail_outbox PRIMARY KEY (id),
+    CONSTRAINT ck_mail_outbox_status CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'DEAD'))
+);
+
+-- Poller: due PENDING messages and stale SENDING claims
+CREATE INDEX idx_mail_outbox_status_next_attempt ON mail_outbox (status, next_attempt_at);
@@ -1,20 +1,61 @@
 package com.nuclea.kafka.producer;
 
 import com.nuclea.kafka.model.BaseKafkaMessage;
-import lombok.RequiredArgsConstructor;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Kafka message producer service.
+ * <p>
+ * Sends go through the {@code kafka} bulkhead and circuit breaker, and the broker acknowledgement is
+ * bounded by the {@code kafka} time limiter; while the breaker is open sends fail immediately.
+ * Unless the application configures {@code resilience4j.bulkhead.instances.kafka} and
+ * {@code resilience4j.timelimiter.instances.kafka}, 50 concurrent sends and a 5s acknowledgement timeout apply.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class KafkaMessageProducer {
 
+    private static final String RESILIENCE_NAME = "kafka";
+    private static final BulkheadConfig DEFAULT_BULKHEAD = BulkheadConfig.custom()
+            .maxConcurrentCalls(50)
+            .maxWaitDuration(Duration.ZERO)
+            .build();
+    private static final TimeLimiterConfig DEFAULT_TIME_LIMITER = TimeLimiterConfig.custom()
+            .timeoutDuration(Duration.ofSeconds(5))
+            .build();
+
     private final KafkaTemplate<String, BaseKafkaMessage> kafkaTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Duration sendTimeout;
+
+    public KafkaMessageProducer(
+            KafkaTemplate<String, BaseKafkaMessage> kafkaTemplate,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry,
+            TimeLimiterRegistry timeLimiterRegistry
+    ) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(RESILIENCE_NAME);
+        // Configured instances exist already and win over these defaults
+        this.bulkhead = bulkheadRegistry.bulkhead(RESILIENCE_NAME, DEFAULT_BULKHEAD);
+        this.sendTimeout = timeLimiterRegistry.timeLimiter(RESILIENCE_NAME, DEFAULT_TIME_LIMITER)
+                .getTimeLimiterConfig().getTimeoutDuration();
+    }
 
     /**
      * Send message to Kafka topic.
@@ -22,7 +63,20 @@ public class KafkaMessageProducer {
     public void sendMessage(String topic, BaseKafkaMessage message) {
         log.info("Sending message to topic {}: {}", topic, message.getId());
 
-        kafkaTemplate.send(topic, message.getId(), message)
+        sendAndLog(topic, message.getId(), message);
+    }
+
+    /**
+     * Send message with custom key.
+     */
+    public void sendMessage(String topic, String key, BaseKafkaMessage message) {
+        log.info("Sending message to topic {} with key {}: {}", topic, key, message.getId());
+
+        sendAndLog(topic, key, message);
+    }
+
+    private void sendAndLog(String topic, String key, BaseKafkaMessage message) {
+        send(topic, key, message)
                 .whenComplete((result, ex) -> {
                     if (ex == null) {
                         log.info("Message sent successfully: {}", message.getId());
@@ -33,11 +87,18 @@ public class KafkaMessageProducer {
     }
 
     /**
-     * Send message with custom key.
+     * Send under the breaker; the breaker records the outcome when the acknowledgement (or timeout) arrives.
+     * The bulkhead sits outside the breaker so a burst of rejected sends does not count as broker failures.
      */
-    public void sendMessage(String topic, String key, BaseKafkaMessage message) {
-        log.info("Sending message to topic {} with key {}: {}", topic, key, message.getId());
-
-        kafkaTemplate.send(topic, key, message);
+    private CompletableFuture<SendResult<String, BaseKafkaMessage>> send(String topic, String key, BaseKafkaMessage message) {
+        try {
+            return bulkhead.executeSupplier(() -> circuitBreaker.executeCompletionStage(
+                            () -> kafkaTemplate.send(topic, key, message)
+                                    .orTimeout(sendTimeout.toMillis(), TimeUnit.MILLISECONDS)))
+                    .toCompletableFuture();
+        } catch (Exception e) {
+            // Breaker open or bulkhead full: fail fast instead of blocking on the producer
+            return CompletableFuture.failedFuture(e);
+        }
     }
 }
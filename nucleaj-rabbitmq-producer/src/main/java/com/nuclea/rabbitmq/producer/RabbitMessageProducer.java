@@ -1,20 +1,46 @@
 package com.nuclea.rabbitmq.producer;
 
 import com.nuclea.rabbitmq.model.BaseRabbitMessage;
-import lombok.RequiredArgsConstructor;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 /**
  * RabbitMQ message producer service.
+ * Sends go through the {@code rabbitmq} bulkhead and circuit breaker; while the breaker is open sends fail immediately.
+ * Unless the application configures {@code resilience4j.bulkhead.instances.rabbitmq}, 50 concurrent sends apply.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class RabbitMessageProducer {
 
+    private static final String RESILIENCE_NAME = "rabbitmq";
+    private static final BulkheadConfig DEFAULT_BULKHEAD = BulkheadConfig.custom()
+            .maxConcurrentCalls(50)
+            .maxWaitDuration(Duration.ZERO)
+            .build();
+
     private final RabbitTemplate rabbitTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public RabbitMessageProducer(
+            RabbitTemplate rabbitTemplate,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry
+    ) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(RESILIENCE_NAME);
+        // A configured instance exists already and wins over this default
+        this.bulkhead = bulkheadRegistry.bulkhead(RESILIENCE_NAME, DEFAULT_BULKHEAD);
+    }
 
     /**
      * Send message to RabbitMQ exchange.
@@ -23,7 +49,7 @@ public class RabbitMessageProducer {
         log.info("Sending message to exchange {} with routing key {}: {}", exchange, routingKey, message.getId());
 
         try {
-            rabbitTemplate.convertAndSend(exchange, routingKey, message);
+            send(() -> rabbitTemplate.convertAndSend(exchange, routingKey, message));
             log.info("Message sent successfully: {}", message.getId());
         } catch (Exception e) {
             log.error("Failed to send message: {}", message.getId(), e);
@@ -37,10 +63,17 @@ public class RabbitMessageProducer {
         log.info("Sending message to queue {}: {}", queueName, message.getId());
 
         try {
-            rabbitTemplate.convertAndSend(queueName, message);
+            send(() -> rabbitTemplate.convertAndSend(queueName, message));
             log.info("Message sent successfully: {}", message.getId());
         } catch (Exception e) {
             log.error("Failed to send message: {}", message.getId(), e);
         }
     }
+
+    /**
+     * The bulkhead sits outside the breaker so a burst of rejected sends does not count as broker failures.
+     */
+    private void send(Runnable sendAction) {
+        Bulkhead.decorateRunnable(bulkhead, CircuitBreaker.decorateRunnable(circuitBreaker, sendAction)).run();
+    }
 }
@@ -9,6 +9,9 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Scheduler Application (Hangfire equivalent with Spring Scheduler/Quartz).
+ * <p>
+ * With {@code spring.threads.virtual.enabled=true} request handling, {@code @Async} and {@code @Scheduled}
+ * tasks run on virtual threads.
  */
 @SpringBootApplication
 @EnableScheduling